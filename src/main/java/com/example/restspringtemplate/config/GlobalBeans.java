@@ -1,8 +1,16 @@
 package com.example.restspringtemplate.config;
 
+import com.example.restspringtemplate.config.properties.PasswordProperties;
+import com.example.restspringtemplate.config.security.BoundedPasswordEncoder;
+import com.example.restspringtemplate.config.security.ratelimit.InMemoryRateLimiter;
+import com.example.restspringtemplate.config.security.ratelimit.RateLimiterFactory;
+import com.example.restspringtemplate.config.security.revocation.InMemoryRevocationStore;
+import com.example.restspringtemplate.config.security.revocation.RevocationStore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Clock;
 
@@ -13,8 +21,52 @@ public class GlobalBeans {
 		return Clock.systemUTC();
 	}
 
+	/**
+	 * Encoder of the passwords, which hashes them with BCrypt in a dedicated
+	 * pool of threads.
+	 *
+	 * @param properties    properties of the hashing of the passwords.
+	 * @param meterRegistry registry of the metrics of the pool.
+	 *
+	 * @return the encoder of the passwords.
+	 */
 	@Bean
-	public BCryptPasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(PasswordProperties properties, MeterRegistry meterRegistry) {
+		return new BoundedPasswordEncoder(
+			new BCryptPasswordEncoder(properties.getStrength()),
+			properties,
+			meterRegistry
+		);
+	}
+
+	/**
+	 * Store of the revoked tokens, used unless a persistent one is provided as a
+	 * {@link org.springframework.context.annotation.Primary @Primary} bean.
+	 *
+	 * @return the store of the revoked tokens.
+	 */
+	@Bean
+	public RevocationStore revocationStore() {
+		return new InMemoryRevocationStore();
+	}
+
+	/**
+	 * Factory of the rate limiters, which keep their buckets in memory unless
+	 * another factory is provided as a
+	 * {@link org.springframework.context.annotation.Primary @Primary} bean.
+	 *
+	 * @param meterRegistry registry of the metrics of the limiters.
+	 *
+	 * @return the factory of the rate limiters.
+	 */
+	@Bean
+	public RateLimiterFactory rateLimiterFactory(MeterRegistry meterRegistry) {
+		return (name, bandwidth, maximumKeys) -> new InMemoryRateLimiter(
+			name,
+			bandwidth.getCapacity(),
+			bandwidth.getPeriod(),
+			maximumKeys,
+			meterRegistry
+		);
 	}
 }
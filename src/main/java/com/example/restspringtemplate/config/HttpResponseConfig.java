@@ -0,0 +1,23 @@
+package com.example.restspringtemplate.config;
+
+import com.example.restspringtemplate.config.properties.HttpResponseProperties;
+import com.example.restspringtemplate.net.http.HttpResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the properties of the responses at startup. {@link HttpResponse} objects
+ * are created by hand in the controllers and filters, so their settings are
+ * global to the application instead of being injected.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HttpResponseConfig {
+	private final HttpResponseProperties properties;
+
+	@PostConstruct
+	public void configureResponses() {
+		HttpResponse.setBufferLimit((int) Math.min(this.properties.getBufferLimit().toBytes(), Integer.MAX_VALUE - 8));
+	}
+}
@@ -0,0 +1,27 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Number of requests allowed in a period of time.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Bandwidth {
+	/**
+	 * Number of requests that can be made at once.
+	 */
+	private long capacity;
+
+	/**
+	 * Time after which all the requests are available again.
+	 */
+	private Duration period;
+}
@@ -0,0 +1,31 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.restspringtemplate.router.Routes.ROOT_URL;
+import static com.example.restspringtemplate.router.Routes.TEST_URL;
+
+/**
+ * Properties of the paths whose requests take a fast path through the
+ * filters. The paths are exact, or prefixes that end with {@code /**}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http.fast-path")
+public class FastPathProperties {
+	/**
+	 * Paths that are handled without authentication, nor buffering the body
+	 * of their requests (health checks, static resources...).
+	 */
+	private List<String> publicPaths = new ArrayList<>(List.of(ROOT_URL, TEST_URL, "/actuator/health/**"));
+
+	/**
+	 * Paths that are answered with a 404 as soon as they are received.
+	 */
+	private List<String> ignoredPaths = new ArrayList<>(List.of("/favicon.ico"));
+}
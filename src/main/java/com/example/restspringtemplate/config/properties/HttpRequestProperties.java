@@ -0,0 +1,48 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_BODY_SPILL_THRESHOLD;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_MAX_BODY_SIZE;
+
+/**
+ * Properties that configure how the bodies of the incoming requests are handled.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http.request")
+public class HttpRequestProperties {
+	/**
+	 * Maximum size of the body of a request, unless the route has its own limit.
+	 */
+	private DataSize maxBodySize = DataSize.ofBytes(DEFAULT_MAX_BODY_SIZE);
+
+	/**
+	 * Maximum size of the body of the requests of concrete routes (servlet paths).
+	 */
+	private Map<String, DataSize> routeMaxBodySize = new HashMap<>();
+
+	/**
+	 * Size above which the bodies are moved from the heap to a memory-mapped
+	 * temporary file.
+	 */
+	private DataSize spillThreshold = DataSize.ofBytes(DEFAULT_BODY_SPILL_THRESHOLD);
+
+	/**
+	 * Gets the maximum body size allowed for the given route.
+	 *
+	 * @param path servlet path of the request.
+	 *
+	 * @return the maximum number of bytes allowed for the body.
+	 */
+	public long maxBodySizeOf(String path) {
+		DataSize routeLimit = this.routeMaxBodySize.get(path);
+		return (routeLimit != null ? routeLimit : this.maxBodySize).toBytes();
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_COMPRESSION_MIN_SIZE;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_RESPONSE_BUFFER_LIMIT;
+
+/**
+ * Properties that configure how the responses are sent to the clients.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "http.response")
+public class HttpResponseProperties {
+	/**
+	 * Largest body that is kept in memory to be sent with its exact length.
+	 * Larger bodies are sent while they are serialized.
+	 */
+	private DataSize bufferLimit = DataSize.ofBytes(DEFAULT_RESPONSE_BUFFER_LIMIT);
+
+	private final Compression compression = new Compression();
+
+	/**
+	 * Properties of the compression of the response bodies.
+	 */
+	@Getter
+	@Setter
+	public static class Compression {
+		/**
+		 * If the responses can be compressed when the client accepts it.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Minimum size of the responses to be compressed.
+		 */
+		private DataSize minSize = DataSize.ofBytes(DEFAULT_COMPRESSION_MIN_SIZE);
+
+		/**
+		 * Compression level, from 0 (none) to 9 (best), or -1 for the default one.
+		 */
+		private int level = Deflater.DEFAULT_COMPRESSION;
+
+		/**
+		 * Path patterns of the routes whose responses are never compressed.
+		 */
+		private List<String> excludedPaths = new ArrayList<>();
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_LOGIN_ATTEMPTS_PER_ADDRESS;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_LOGIN_ATTEMPTS_PER_USERNAME;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_RATE_LIMIT_KEYS;
+
+/**
+ * Properties of the limits of the login attempts.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.login-rate-limit")
+public class LoginRateLimitProperties {
+	/**
+	 * If the login attempts are limited.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of clients (addresses or usernames) whose attempts are tracked.
+	 */
+	private long maximumKeys = DEFAULT_RATE_LIMIT_KEYS;
+
+	/**
+	 * Limit of the attempts made from the same address.
+	 */
+	private final Bandwidth perAddress = new Bandwidth(DEFAULT_LOGIN_ATTEMPTS_PER_ADDRESS, Duration.ofMinutes(1));
+
+	/**
+	 * Limit of the attempts made for the same username.
+	 */
+	private final Bandwidth perUsername = new Bandwidth(DEFAULT_LOGIN_ATTEMPTS_PER_USERNAME, Duration.ofMinutes(1));
+}
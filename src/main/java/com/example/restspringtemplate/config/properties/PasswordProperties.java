@@ -0,0 +1,45 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_PASSWORD_QUEUE_CAPACITY;
+
+/**
+ * Properties of the hashing of the passwords.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.password")
+public class PasswordProperties {
+	/**
+	 * Cost factor of BCrypt (log2 of the number of rounds), from 4 to 31.
+	 */
+	private int strength = 10;
+
+	/**
+	 * Number of threads that hash the passwords.
+	 */
+	private int poolSize = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Maximum number of passwords waiting to be hashed. Once it is reached,
+	 * the logins are rejected until there is room again.
+	 */
+	private int queueCapacity = DEFAULT_PASSWORD_QUEUE_CAPACITY;
+
+	/**
+	 * Maximum time that a login waits for a thread to hash its password. Once
+	 * the hash has started, it is always completed.
+	 */
+	private Duration timeout = Duration.ofSeconds(5);
+
+	/**
+	 * If the stored passwords are hashed again when the users log in, if they
+	 * were hashed with a lower strength than the configured one.
+	 */
+	private boolean rehash = false;
+}
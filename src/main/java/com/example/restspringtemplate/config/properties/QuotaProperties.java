@@ -0,0 +1,43 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_LOW_TIER_QUOTA;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_MEDIUM_TIER_QUOTA;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_RATE_LIMIT_KEYS;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_TOP_TIER_QUOTA;
+
+/**
+ * Properties of the quotas of the requests made by the authenticated users,
+ * which depend on their tier.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.quota")
+public class QuotaProperties {
+	/**
+	 * If the requests of the authenticated users are limited.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of users of each tier whose requests are tracked.
+	 */
+	private long maximumKeys = DEFAULT_RATE_LIMIT_KEYS;
+
+	/**
+	 * Quota of each user, by role. The roles without a quota of their own use
+	 * the quota of the least privileged tier ({@code TOP}, see {@code Role}).
+	 */
+	private Map<String, Bandwidth> tiers = new LinkedHashMap<>(Map.of(
+		"LOW", new Bandwidth(DEFAULT_LOW_TIER_QUOTA, Duration.ofMinutes(1)),
+		"MEDIUM", new Bandwidth(DEFAULT_MEDIUM_TIER_QUOTA, Duration.ofMinutes(1)),
+		"TOP", new Bandwidth(DEFAULT_TOP_TIER_QUOTA, Duration.ofMinutes(1))
+	));
+}
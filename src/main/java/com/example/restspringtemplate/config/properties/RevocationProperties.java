@@ -0,0 +1,34 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_EXPECTED_REVOCATIONS;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_REVOCATION_FALSE_POSITIVE_RATE;
+
+/**
+ * Properties of the revocation of the JWT tokens.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation")
+public class RevocationProperties {
+	/**
+	 * Number of revoked (and not expired) tokens that the filter is sized for.
+	 * The filter grows when it is rebuilt if there are more.
+	 */
+	private long expectedRevocations = DEFAULT_EXPECTED_REVOCATIONS;
+
+	/**
+	 * Probability that a token that has not been revoked is looked up in the store.
+	 */
+	private double falsePositiveRate = DEFAULT_REVOCATION_FALSE_POSITIVE_RATE;
+
+	/**
+	 * Time between the purges of the expired revocations.
+	 */
+	private Duration purgeInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,20 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_TOKEN_CACHE_SIZE;
+
+/**
+ * Properties of the cache of the JWT tokens that have already been verified.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.token-cache")
+public class TokenCacheProperties {
+	/**
+	 * Maximum number of tokens kept in the cache (0 disables the cache).
+	 */
+	private long maximumSize = DEFAULT_TOKEN_CACHE_SIZE;
+}
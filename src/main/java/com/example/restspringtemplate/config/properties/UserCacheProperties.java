@@ -0,0 +1,27 @@
+package com.example.restspringtemplate.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_USER_CACHE_SIZE;
+
+/**
+ * Properties of the cache of the credentials of the users.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.user-cache")
+public class UserCacheProperties {
+	/**
+	 * Maximum number of users kept in the cache (0 disables the cache).
+	 */
+	private long maximumSize = DEFAULT_USER_CACHE_SIZE;
+
+	/**
+	 * Time after which a cached user is loaded again from the database.
+	 */
+	private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,206 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.config.properties.PasswordProperties;
+import com.example.restspringtemplate.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} that hashes the passwords in a dedicated pool of
+ * threads, with a bounded queue. Hashing a password is deliberately slow, so
+ * a burst of logins would otherwise keep busy all the threads that handle the
+ * requests, starving the rest of the routes.
+ * <p>
+ * When the queue is full (or the password waits too long for a thread), the
+ * login fails immediately with a {@link ServiceUnavailableException}. The
+ * timeout only applies to the time spent in the queue: BCrypt can not be
+ * interrupted, so a hash that has started is always completed and returned,
+ * and the passwords whose login has given up are removed from the queue
+ * without being hashed. This way, the timeouts shed the load along with the
+ * callers.
+ * <p>
+ * The size of the queue and the time spent hashing are published as the
+ * {@code security.password.queue} and {@code security.password.hash} metrics.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutNanos;
+	private final boolean rehash;
+	private final Timer hashTimer;
+	private final Counter rejections;
+
+	/**
+	 * Constructs a new encoder.
+	 *
+	 * @param delegate      the encoder that hashes the passwords.
+	 * @param properties    the properties of the pool.
+	 * @param meterRegistry the registry of the metrics.
+	 */
+	public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordProperties properties, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.executor = new ThreadPoolExecutor(
+			properties.getPoolSize(), properties.getPoolSize(),
+			0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+			new CustomizableThreadFactory("password-"),
+			new ThreadPoolExecutor.AbortPolicy()
+		);
+		this.timeoutNanos = properties.getTimeout().toNanos();
+		this.rehash = properties.isRehash();
+
+		this.hashTimer = Timer.builder("security.password.hash")
+		                      .description("Time spent hashing the passwords")
+		                      .register(meterRegistry);
+		this.rejections = Counter.builder("security.password.rejected")
+		                         .description("Password checks rejected because the pool was saturated")
+		                         .register(meterRegistry);
+		Gauge.builder("security.password.queue", this.executor, executor -> executor.getQueue().size())
+		     .description("Passwords waiting to be hashed")
+		     .register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return this.submit(() -> this.delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return this.submit(() -> this.delegate.matches(rawPassword, encodedPassword));
+	}
+
+	/**
+	 * Checks if the password must be hashed again. This is only done if it is
+	 * enabled in the properties, and the stored hash is weaker than the one
+	 * that would be generated now.
+	 * <p>
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return this.rehash && this.delegate.upgradeEncoding(encodedPassword);
+	}
+
+	/**
+	 * Runs the task in the pool, and waits for its result. If the task does not
+	 * start within the timeout, it is abandoned; if it has started, its result
+	 * is awaited however long it takes, as the hash can not be stopped.
+	 *
+	 * @param task the hashing task.
+	 * @param <T>  the type of the result.
+	 *
+	 * @return the result of the task.
+	 *
+	 * @throws ServiceUnavailableException if the pool is saturated, or the task
+	 *                                     does not start in time.
+	 */
+	private <T> T submit(Callable<T> task) {
+		QueuedTask<T> queued = new QueuedTask<>(task);
+		Future<T> future;
+
+		try {
+			future = this.executor.submit(queued);
+		} catch (RejectedExecutionException e) {
+			this.rejections.increment();
+			log.warn("Password check rejected: {} passwords are already waiting", this.executor.getQueue().size());
+			throw new ServiceUnavailableException("Too many login attempts, please try again later.");
+		}
+
+		try {
+			try {
+				return future.get(this.timeoutNanos, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				if (this.abandon(queued, future)) {
+					this.rejections.increment();
+					throw new ServiceUnavailableException("Too many login attempts, please try again later.");
+				}
+
+				return future.get();
+			}
+		} catch (InterruptedException e) {
+			this.abandon(queued, future);
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("The password check was interrupted.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Abandons a task that has not started yet, and removes it from the queue.
+	 *
+	 * @param queued the task.
+	 * @param future the future of the task in the pool.
+	 *
+	 * @return {@code true} if the task was abandoned, {@code false} if it had
+	 * already started.
+	 */
+	private boolean abandon(QueuedTask<?> queued, Future<?> future) {
+		if (!queued.abandon()) {
+			return false;
+		}
+
+		this.executor.remove((Runnable) future);
+		return true;
+	}
+
+	/**
+	 * Stops the threads of the pool.
+	 */
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Hashing task that is either started by the pool or abandoned by the
+	 * caller, whichever comes first.
+	 */
+	private final class QueuedTask<T> implements Callable<T> {
+		private static final int QUEUED = 0;
+		private static final int STARTED = 1;
+		private static final int ABANDONED = 2;
+
+		private final Callable<T> task;
+		private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+		private QueuedTask(Callable<T> task) {
+			this.task = task;
+		}
+
+		@Override
+		public T call() throws Exception {
+			if (!this.state.compareAndSet(QUEUED, STARTED)) {
+				throw new CancellationException();
+			}
+
+			return BoundedPasswordEncoder.this.hashTimer.recordCallable(this.task);
+		}
+
+		private boolean abandon() {
+			return this.state.compareAndSet(QUEUED, ABANDONED);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.config.properties.FastPathProperties;
+import com.example.restspringtemplate.router.PathSet;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paths whose requests take a fast path through the first filter of the
+ * application, compiled once at startup.
+ * <p>
+ * The requests to public paths are dispatched without buffering their body,
+ * and are permitted by the security chain without verifying any token. The
+ * requests to ignored paths are answered right away with a 404.
+ */
+@Component
+public class FastPaths {
+	private final PathSet publicPaths;
+	private final PathSet ignoredPaths;
+
+	public FastPaths(FastPathProperties properties) {
+		this.publicPaths = PathSet.compile(properties.getPublicPaths());
+		this.ignoredPaths = PathSet.compile(properties.getIgnoredPaths());
+	}
+
+	/**
+	 * @param request the request to check.
+	 *
+	 * @return {@code true} if the request is to a public path, {@code false} otherwise.
+	 */
+	public boolean isPublic(HttpServletRequest request) {
+		return this.publicPaths.matches(request.getServletPath());
+	}
+
+	/**
+	 * @param request the request to check.
+	 *
+	 * @return {@code true} if the request is to an ignored path, {@code false} otherwise.
+	 */
+	public boolean isIgnored(HttpServletRequest request) {
+		return this.ignoredPaths.matches(request.getServletPath());
+	}
+}
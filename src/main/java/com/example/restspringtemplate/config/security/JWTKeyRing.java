@@ -0,0 +1,249 @@
+package com.example.restspringtemplate.config.security;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keys used to sign and verify the JWT tokens. They are decoded once, and
+ * replaced as a whole when they are reloaded, so the tokens being verified
+ * concurrently always see a consistent set of keys.
+ * <p>
+ * The keys are read from the following environment variables:
+ * <ul>
+ *     <li>{@code TOKEN_SECRET}: key of the tokens without a key id ({@code kid}).
+ *     It is used to sign the tokens if there are no other keys.</li>
+ *     <li>{@code TOKEN_SECRETS}: keys with an id, as {@code kid:secret} pairs
+ *     separated by commas. All of them can verify tokens.</li>
+ *     <li>{@code TOKEN_SECRETS_FILE}: path of a file with more keys, in the same
+ *     format as {@code TOKEN_SECRETS} (also one per line). It is checked
+ *     periodically (see {@code security.jwt-keys.reload-interval}), and the keys
+ *     are reloaded when it changes, so they can be rotated without restarting.</li>
+ *     <li>{@code TOKEN_SIGNING_KEY_ID}: id of the key that signs the new tokens.
+ *     It is not needed if there is only one key.</li>
+ * </ul>
+ * All the secrets are encoded in Base64.
+ */
+@Slf4j
+@Component
+public class JWTKeyRing {
+	private final UnaryOperator<String> environment;
+	private final AtomicReference<KeySet> current = new AtomicReference<>();
+
+	public JWTKeyRing() {
+		this(System::getenv);
+	}
+
+	/**
+	 * @param environment lookup of the environment variables with the keys.
+	 */
+	JWTKeyRing(UnaryOperator<String> environment) {
+		this.environment = environment;
+	}
+
+	/**
+	 * Gets the current keys, reading them the first time they are needed.
+	 *
+	 * @return the current keys.
+	 *
+	 * @throws IllegalStateException if the keys are missing or invalid.
+	 */
+	KeySet current() {
+		KeySet keys = this.current.get();
+
+		if (keys == null) {
+			this.current.compareAndSet(null, KeySet.load(this.environment));
+			keys = this.current.get();
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Reads the keys again and replaces the current ones. The tokens signed
+	 * with the keys that are no longer present become invalid.
+	 *
+	 * @throws IllegalStateException if the new keys are missing or invalid. In
+	 *                               that case, the current keys are kept.
+	 */
+	public void reload() {
+		this.current.set(KeySet.load(this.environment));
+		log.info("JWT keys reloaded");
+	}
+
+	/**
+	 * Reloads the keys if the file of {@code TOKEN_SECRETS_FILE} has changed
+	 * since they were read. If the new keys are invalid, the current ones are
+	 * kept and the error is logged.
+	 */
+	@Scheduled(fixedDelayString = "${security.jwt-keys.reload-interval:PT1M}")
+	public void reloadIfChanged() {
+		KeySet keys = this.current.get();
+		Path file = KeySet.file(this.environment);
+
+		// The keys that have not been read yet are read when they are first needed.
+		if (keys == null || file == null) {
+			return;
+		}
+
+		try {
+			if (FileVersion.of(file).equals(keys.fileVersion)) {
+				return;
+			}
+
+			this.reload();
+		} catch (IOException | RuntimeException e) {
+			log.error("Could not reload the JWT keys from {}, the current ones are kept", file, e);
+		}
+	}
+
+	/**
+	 * Set of keys read at the same time.
+	 */
+	static final class KeySet {
+		private final String signingKeyId;
+		private final Key signingKey;
+		private final Key defaultKey;
+		private final Map<String, Key> keys;
+		private final FileVersion fileVersion;
+
+		private KeySet(String signingKeyId, Key signingKey, Key defaultKey, Map<String, Key> keys, FileVersion fileVersion) {
+			this.signingKeyId = signingKeyId;
+			this.signingKey = signingKey;
+			this.defaultKey = defaultKey;
+			this.keys = keys;
+			this.fileVersion = fileVersion;
+		}
+
+		/**
+		 * @return the id of the key that signs the new tokens, or {@code null} if
+		 * they are signed with the key without id.
+		 */
+		String signingKeyId() {
+			return this.signingKeyId;
+		}
+
+		/**
+		 * @return the key that signs the new tokens.
+		 */
+		Key signingKey() {
+			return this.signingKey;
+		}
+
+		/**
+		 * Finds the key that verifies a token.
+		 *
+		 * @param keyId the id of the key in the header of the token, or {@code null} if there is none.
+		 *
+		 * @return the key, or {@code null} if there is no key with the given id.
+		 */
+		Key verificationKey(String keyId) {
+			return keyId == null ? this.defaultKey : this.keys.get(keyId);
+		}
+
+		/**
+		 * @return the file of {@code TOKEN_SECRETS_FILE}, or {@code null} if there is none.
+		 */
+		private static Path file(UnaryOperator<String> environment) {
+			String file = environment.apply("TOKEN_SECRETS_FILE");
+			return file == null || file.isBlank() ? null : Path.of(file);
+		}
+
+		private static KeySet load(UnaryOperator<String> environment) {
+			String secret = environment.apply("TOKEN_SECRET");
+			Key defaultKey = secret == null || secret.isBlank() ? null : decode(secret);
+			Map<String, Key> keys = new HashMap<>();
+			FileVersion fileVersion = null;
+
+			parseKeys(environment.apply("TOKEN_SECRETS"), keys);
+
+			Path file = file(environment);
+
+			if (file != null) {
+				try {
+					// The version is read first, so that changes made while reading are not missed.
+					fileVersion = FileVersion.of(file);
+					parseKeys(Files.readString(file), keys);
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not read the JWT keys from " + file, e);
+				}
+			}
+
+			String signingKeyId = environment.apply("TOKEN_SIGNING_KEY_ID");
+
+			if (signingKeyId == null || signingKeyId.isBlank()) {
+				if (keys.isEmpty()) {
+					if (defaultKey == null) {
+						throw new IllegalStateException("No JWT secret has been configured (TOKEN_SECRET)");
+					}
+
+					return new KeySet(null, defaultKey, defaultKey, Map.of(), fileVersion);
+				}
+
+				if (keys.size() > 1) {
+					throw new IllegalStateException("TOKEN_SIGNING_KEY_ID is required when there are several JWT keys");
+				}
+
+				signingKeyId = keys.keySet().iterator().next();
+			}
+
+			Key signingKey = keys.get(signingKeyId);
+
+			if (signingKey == null) {
+				throw new IllegalStateException("There is no JWT key with id " + signingKeyId);
+			}
+
+			return new KeySet(signingKeyId, signingKey, defaultKey, Map.copyOf(keys), fileVersion);
+		}
+
+		private static void parseKeys(String value, Map<String, Key> keys) {
+			if (value == null) {
+				return;
+			}
+
+			for (String entry : value.split("[,\\n]")) {
+				String trimmed = entry.trim();
+
+				if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+					continue;
+				}
+
+				int separator = trimmed.indexOf(':');
+
+				if (separator <= 0) {
+					throw new IllegalStateException("JWT keys must have the format kid:secret");
+				}
+
+				keys.put(trimmed.substring(0, separator).trim(), decode(trimmed.substring(separator + 1).trim()));
+			}
+		}
+
+		private static Key decode(String secret) {
+			return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+		}
+	}
+
+	/**
+	 * Version of the file of the keys, which changes when the file is modified.
+	 */
+	private record FileVersion(FileTime lastModified, long size) {
+		private static FileVersion of(Path file) throws IOException {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return new FileVersion(attributes.lastModifiedTime(), attributes.size());
+		}
+	}
+}
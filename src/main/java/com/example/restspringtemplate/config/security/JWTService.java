@@ -1,12 +1,15 @@
 package com.example.restspringtemplate.config.security;
 
+import com.example.restspringtemplate.domain.model.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import com.example.restspringtemplate.utils.Constants;
 
@@ -15,6 +18,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 import static com.example.restspringtemplate.utils.Constants.TOKEN_EXPIRATION_DURATION_EXTENDED;
@@ -22,11 +26,26 @@ import static com.example.restspringtemplate.utils.Constants.TOKEN_EXPIRATION_DU
 
 /**
  * Class that handles JWT tokens.
+ * <p>
+ * The keys are decoded only once (see {@link JWTKeyRing}) and the tokens are
+ * verified with a single thread-safe parser, which finds the key of each token
+ * by its id ({@code kid}). This way, the keys can be rotated: several keys
+ * can verify tokens while only one of them signs the new ones.
  */
 @Service
-@RequiredArgsConstructor
 public class JWTService {
 	private final Clock clock;
+	private final JWTKeyRing keyRing;
+	private final JwtParser parser;
+
+	public JWTService(Clock clock, JWTKeyRing keyRing) {
+		this.clock = clock;
+		this.keyRing = keyRing;
+		this.parser = Jwts.parserBuilder()
+		                  .setSigningKeyResolver(new KeyResolver())
+		                  .setClock(() -> Date.from(clock.instant()))
+		                  .build();
+	}
 
 	/**
 	 * Retrieves the username from the JWT token (subject).
@@ -39,54 +58,79 @@ public class JWTService {
 		return getClaim(token, Claims::getSubject);
 	}
 
+	/**
+	 * Parses and verifies the token once, and extracts all the data needed to
+	 * authorize the requests that carry it.
+	 *
+	 * @param token token to verify. It contains the prefix
+	 *              {@link Constants#JWT_TOKEN_PREFIX} in front of it.
+	 *
+	 * @return the data of the token.
+	 *
+	 * @throws io.jsonwebtoken.JwtException if the token is invalid.
+	 */
+	public VerifiedToken verify(String token) {
+		Claims claims = getClaims(token);
+		Date expiration = claims.getExpiration();
+
+		return new VerifiedToken(
+			claims.getId(),
+			claims.getSubject(),
+			Role.fromClaim(claims.get("role")), // Older tokens have the name of the role
+			expiration == null ? null : expiration.toInstant()
+		);
+	}
+
 	/**
 	 * Creates a new JWT token with the given data.
 	 *
 	 * @param username             username to be added to the token.
 	 * @param requestURL           URL of the request.
-	 * @param role                 role of the user.
+	 * @param role                 role of the user, stored as its mask.
 	 * @param extendExpirationTime if the expiration time should be extended.
 	 *
 	 * @return the JWT token as a {@link String}.
 	 */
 	public String generateToken(String username, String requestURL,
-	                            String role, boolean extendExpirationTime) {
+	                            Role role, boolean extendExpirationTime) {
 		Instant instant = this.clock.instant();
 
-		return Jwts.builder()
-		           .setSubject(username)
-		           .setIssuer(requestURL) // URL of our application
-		           .claim("role", role) // Only one role is in DB
-		           .setIssuedAt(Date.from(instant))
-		           .setExpiration(Date.from(
-				           instant.plus(
-						           extendExpirationTime ?
-						           TOKEN_EXPIRATION_DURATION_EXTENDED :
-						           TOKEN_EXPIRATION_DURATION_NORMAL
-				           )
-		           ))
-		           .signWith(getSecretKey(), SignatureAlgorithm.HS256)
-		           .compact();
+		JwtBuilder builder = Jwts.builder()
+		                         .setId(UUID.randomUUID().toString()) // Allows revoking the token
+		                         .setSubject(username)
+		                         .setIssuer(requestURL) // URL of our application
+		                         .claim("role", role.mask()) // Only one role is in DB
+		                         .setIssuedAt(Date.from(instant))
+		                         .setExpiration(Date.from(
+				                         instant.plus(
+						                         extendExpirationTime ?
+						                         TOKEN_EXPIRATION_DURATION_EXTENDED :
+						                         TOKEN_EXPIRATION_DURATION_NORMAL
+				                         )
+		                         ));
+
+		return sign(builder);
 	}
 
 	/**
 	 * Creates a new JWT token for temporary access.
 	 *
 	 * @param username username to be added to the token.
-	 * @param role     role of the user.
+	 * @param role     role of the user, stored as its mask.
 	 *
 	 * @return the JWT token as a {@link String}.
 	 */
-	public static String generateTmpToken(String username, String role) {
-		Instant instant = Clock.systemUTC().instant();
-
-		return Jwts.builder()
-		           .setSubject(username)
-		           .claim("role", role)
-		           .setIssuedAt(Date.from(instant))
-		           .setExpiration(Date.from(instant.plus(1, ChronoUnit.HOURS)))
-		           .signWith(getSecretKey(), SignatureAlgorithm.HS256)
-		           .compact();
+	public String generateTmpToken(String username, Role role) {
+		Instant instant = this.clock.instant();
+
+		JwtBuilder builder = Jwts.builder()
+		                         .setId(UUID.randomUUID().toString())
+		                         .setSubject(username)
+		                         .claim("role", role.mask())
+		                         .setIssuedAt(Date.from(instant))
+		                         .setExpiration(Date.from(instant.plus(1, ChronoUnit.HOURS)));
+
+		return sign(builder);
 	}
 
 	/**
@@ -137,18 +181,42 @@ public class JWTService {
 	 * @return the claims of the token.
 	 */
 	private Claims getClaims(@NonNull String token) {
-		return Jwts.parserBuilder()
-		           .setSigningKey(getSecretKey())
-		           .build()
-		           .parseClaimsJws(token.substring(Constants.JWT_TOKEN_PREFIX.length()))
-		           .getBody();
+		return this.parser.parseClaimsJws(token.substring(Constants.JWT_TOKEN_PREFIX.length()))
+		                  .getBody();
+	}
+
+	/**
+	 * Signs the token with the current signing key, adding its id to the header.
+	 *
+	 * @param builder builder of the token to sign.
+	 *
+	 * @return the JWT token as a {@link String}.
+	 */
+	private String sign(JwtBuilder builder) {
+		JWTKeyRing.KeySet keys = this.keyRing.current();
+
+		if (keys.signingKeyId() != null) {
+			builder.setHeaderParam(JwsHeader.KEY_ID, keys.signingKeyId());
+		}
+
+		return builder.signWith(keys.signingKey(), SignatureAlgorithm.HS256)
+		              .compact();
 	}
 
 	/**
-	 * @return the secret key that is used to sign the JWT token.
+	 * Finds the key that verifies each token in the current keys, so that the
+	 * parser does not need to be rebuilt when the keys are reloaded.
 	 */
-	private static Key getSecretKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(System.getenv("TOKEN_SECRET"));
-		return Keys.hmacShaKeyFor(keyBytes);
+	private final class KeyResolver extends SigningKeyResolverAdapter {
+		@Override
+		public Key resolveSigningKey(JwsHeader header, Claims claims) {
+			Key key = JWTService.this.keyRing.current().verificationKey(header.getKeyId());
+
+			if (key == null) {
+				throw new SignatureException("Unknown JWT key id: " + header.getKeyId());
+			}
+
+			return key;
+		}
 	}
 }
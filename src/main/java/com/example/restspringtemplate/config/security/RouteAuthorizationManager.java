@@ -0,0 +1,250 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.domain.model.Role;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Authorization of the private routes of the application, compiled at startup
+ * into a trie of path segments per HTTP method.
+ * <p>
+ * Each route of the trie holds the precomputed mask of the roles allowed to
+ * access it (see {@link Role}), so the access to any request is decided with a
+ * single lookup, whose cost depends on the number of segments of its path
+ * instead of the number of registered routes, and a single AND with the roles
+ * of the user. The requests to routes that are not registered only need
+ * the user to be authenticated.
+ * <p>
+ * The routes are made of literal segments, variables ({@code {id}}) and
+ * wildcards ({@code *}) that match a single segment, and may end with a
+ * {@code **} wildcard that matches the rest of the path. When several routes
+ * match a request, literal segments are preferred over variables and
+ * wildcards, and those over a trailing {@code **}.
+ */
+public final class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+	private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+	private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+	private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+	/**
+	 * Mask returned by the lookups of the routes that are not registered.
+	 */
+	private static final int UNREGISTERED = 0;
+
+	private final Map<String, Node> roots;
+
+	private RouteAuthorizationManager(Map<String, Node> roots) {
+		this.roots = roots;
+	}
+
+	/**
+	 * @return a new builder of the routes.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Grants the access to authenticated users that have one of the roles
+	 * allowed for the requested route.
+	 * <p>
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+		Authentication current = authentication.get();
+
+		if (current == null || !current.isAuthenticated() || TRUST_RESOLVER.isAnonymous(current)) {
+			return DENIED;
+		}
+
+		int allowedRoles = this.allowedRoles(context.getRequest());
+
+		if (allowedRoles == UNREGISTERED) {
+			return GRANTED;
+		}
+
+		return (allowedRoles & Role.maskOf(current.getAuthorities())) != 0 ? GRANTED : DENIED;
+	}
+
+	/**
+	 * Finds the roles allowed to access the route of the given request.
+	 *
+	 * @param request the request to authorize.
+	 *
+	 * @return the mask of the allowed roles, or {@code 0} if the route is not registered.
+	 */
+	int allowedRoles(HttpServletRequest request) {
+		Node root = this.roots.get(request.getMethod());
+
+		if (root == null) {
+			return UNREGISTERED;
+		}
+
+		String path = request.getPathInfo() == null
+		              ? request.getServletPath()
+		              : request.getServletPath() + request.getPathInfo();
+
+		return root.find(path, 0);
+	}
+
+	/**
+	 * Builder that compiles the routes into the trie.
+	 */
+	public static final class Builder {
+		private final Map<String, Node> roots = new HashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Registers routes accessible to the given roles. If a route has already
+		 * been registered for the same method, the roles registered first are
+		 * kept, as they were by the chain of request matchers.
+		 *
+		 * @param method       the method used to access the routes.
+		 * @param allowedRoles the mask of the roles allowed to access the routes.
+		 * @param routes       the routes to register.
+		 *
+		 * @return this builder.
+		 *
+		 * @throws IllegalArgumentException if a route has an unsupported pattern,
+		 *                                  or no role is allowed.
+		 */
+		public Builder registerRoutes(HttpMethod method, int allowedRoles, String... routes) {
+			if (allowedRoles == UNREGISTERED) {
+				throw new IllegalArgumentException("At least one role must be allowed");
+			}
+
+			Node root = this.roots.computeIfAbsent(method.name(), m -> new Node());
+
+			for (String route : routes) {
+				root.insert(route, allowedRoles);
+			}
+
+			return this;
+		}
+
+		/**
+		 * @return the authorization manager of the registered routes.
+		 */
+		public RouteAuthorizationManager build() {
+			return new RouteAuthorizationManager(Map.copyOf(this.roots));
+		}
+	}
+
+	/**
+	 * Node of the trie, reached through the segments of the path up to it.
+	 * The nodes are only modified while the routes are being registered.
+	 */
+	private static final class Node {
+		private final Map<String, Node> children = new HashMap<>();
+		private Node wildcard;
+
+		/**
+		 * Mask of the roles allowed for the route that ends in this node.
+		 */
+		private int roles = UNREGISTERED;
+
+		/**
+		 * Mask of the roles allowed for the route that ends in this node with {@code **}.
+		 */
+		private int remainingRoles = UNREGISTERED;
+
+		private void insert(String route, int allowedRoles) {
+			Node node = this;
+			boolean remaining = false;
+
+			for (String segment : route.split("/")) {
+				if (segment.isEmpty()) {
+					continue;
+				}
+
+				if (remaining) {
+					throw unsupported(route); // '**' is only supported at the end of the route
+				}
+
+				if (segment.equals("**")) {
+					remaining = true;
+				} else if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+					if (node.wildcard == null) {
+						node.wildcard = new Node();
+					}
+
+					node = node.wildcard;
+				} else if (segment.contains("*") || segment.contains("{")) {
+					throw unsupported(route);
+				} else {
+					node = node.children.computeIfAbsent(segment, s -> new Node());
+				}
+			}
+
+			if (remaining) {
+				if (node.remainingRoles == UNREGISTERED) {
+					node.remainingRoles = allowedRoles;
+				}
+			} else if (node.roles == UNREGISTERED) {
+				node.roles = allowedRoles;
+			}
+		}
+
+		/**
+		 * Finds the roles of the most specific route that matches the path from
+		 * the given index, without splitting it.
+		 *
+		 * @param path  the path of the request.
+		 * @param start index of the first character of the path not matched yet.
+		 *
+		 * @return the mask of the allowed roles, or {@code 0} if no route matches.
+		 */
+		private int find(String path, int start) {
+			while (start < path.length() && path.charAt(start) == '/') {
+				start++;
+			}
+
+			if (start == path.length()) {
+				return this.roles != UNREGISTERED ? this.roles : this.remainingRoles;
+			}
+
+			int end = path.indexOf('/', start);
+
+			if (end == -1) {
+				end = path.length();
+			}
+
+			Node child = this.children.get(path.substring(start, end));
+
+			if (child != null) {
+				int found = child.find(path, end);
+
+				if (found != UNREGISTERED) {
+					return found;
+				}
+			}
+
+			if (this.wildcard != null) {
+				int found = this.wildcard.find(path, end);
+
+				if (found != UNREGISTERED) {
+					return found;
+				}
+			}
+
+			return this.remainingRoles;
+		}
+
+		private static IllegalArgumentException unsupported(String route) {
+			return new IllegalArgumentException("Unsupported route pattern: " + route);
+		}
+	}
+}
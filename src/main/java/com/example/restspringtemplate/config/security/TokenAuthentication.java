@@ -0,0 +1,77 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.domain.model.Role;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collection;
+
+/**
+ * Authentication of a request with a verified JWT token. Its authorities are
+ * the shared collection of the role of the token, so authenticating a request
+ * only creates this object.
+ */
+public final class TokenAuthentication implements Authentication {
+	private final VerifiedToken token;
+	private boolean authenticated = true;
+
+	public TokenAuthentication(VerifiedToken token) {
+		this.token = token;
+	}
+
+	/**
+	 * @return the verified token of the request.
+	 */
+	public VerifiedToken token() {
+		return this.token;
+	}
+
+	@Override
+	public Collection<Role> getAuthorities() {
+		return this.token.role().authorities();
+	}
+
+	/**
+	 * @return {@code null}, as the token is not kept.
+	 */
+	@Override
+	public Object getCredentials() {
+		return null;
+	}
+
+	@Override
+	public Object getDetails() {
+		return null;
+	}
+
+	/**
+	 * @return the username of the owner of the token.
+	 */
+	@Override
+	public Object getPrincipal() {
+		return this.token.subject();
+	}
+
+	@Override
+	public boolean isAuthenticated() {
+		return this.authenticated;
+	}
+
+	/**
+	 * Only allows marking the authentication as not trusted.
+	 * <p>
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setAuthenticated(boolean isAuthenticated) {
+		if (isAuthenticated) {
+			throw new IllegalArgumentException("A token authentication can not be trusted again");
+		}
+
+		this.authenticated = false;
+	}
+
+	@Override
+	public String getName() {
+		return this.token.subject();
+	}
+}
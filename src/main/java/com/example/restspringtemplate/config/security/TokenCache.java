@@ -0,0 +1,149 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.config.properties.TokenCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cache of the JWT tokens that have already been verified. Clients send the
+ * same token in all their requests, so it is only parsed and verified the
+ * first time it is received.
+ * <p>
+ * The tokens are identified by their SHA-256 digest (so they are not kept in
+ * memory), and each entry is evicted as soon as its token expires. The entries
+ * verified with previous keys are verified again after the keys are reloaded.
+ * The size of the cache is bounded, and its hits and misses are published as
+ * the metrics of the {@code jwt.tokens} cache.
+ */
+@Component
+public class TokenCache {
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	});
+
+	private final JWTService jwtService;
+	private final JWTKeyRing keyRing;
+	private final Clock clock;
+	private final Cache<String, CachedToken> cache;
+
+	public TokenCache(JWTService jwtService,
+	                  JWTKeyRing keyRing,
+	                  Clock clock,
+	                  TokenCacheProperties properties,
+	                  MeterRegistry meterRegistry) {
+		this.jwtService = jwtService;
+		this.keyRing = keyRing;
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+		                     .maximumSize(properties.getMaximumSize())
+		                     .expireAfter(new TokenExpiry())
+		                     .recordStats()
+		                     .build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "jwt.tokens");
+	}
+
+	/**
+	 * Gets the data of the given token, verifying it only if it is not in the
+	 * cache. Invalid tokens are never cached.
+	 *
+	 * @param token token to verify. It contains the prefix
+	 *              {@link com.example.restspringtemplate.utils.Constants#JWT_TOKEN_PREFIX} in front of it.
+	 *
+	 * @return the data of the token.
+	 *
+	 * @throws io.jsonwebtoken.JwtException if the token is invalid.
+	 */
+	public VerifiedToken verify(String token) {
+		String key = digest(token);
+		CachedToken cached = this.cache.get(key, k -> this.verifyNow(token));
+		VerifiedToken verified = cached.token();
+
+		// The entries are evicted when the token expires, but the eviction is
+		// not instantaneous, so the expiration is checked on each hit.
+		boolean expired = verified.expiration() != null && !verified.expiration().isAfter(this.clock.instant());
+
+		if (expired || cached.keys() != this.keyRing.current()) {
+			this.cache.invalidate(key);
+			cached = this.verifyNow(token);
+
+			if (!expired) {
+				this.cache.put(key, cached);
+			}
+		}
+
+		return cached.token();
+	}
+
+	/**
+	 * Verifies the token with the current keys.
+	 */
+	private CachedToken verifyNow(String token) {
+		// The keys are taken before verifying, so that the entry is verified
+		// again if they are reloaded in the meantime.
+		JWTKeyRing.KeySet keys = this.keyRing.current();
+		return new CachedToken(this.jwtService.verify(token), keys);
+	}
+
+	private static String digest(String token) {
+		byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+		return Base64.getEncoder().encodeToString(hash);
+	}
+
+	/**
+	 * Keeps each token in the cache until it expires.
+	 */
+	private final class TokenExpiry implements Expiry<String, CachedToken> {
+		@Override
+		public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+			Instant expiration = value.token().expiration();
+
+			if (expiration == null) {
+				return Long.MAX_VALUE;
+			}
+
+			Duration remaining = Duration.between(TokenCache.this.clock.instant(), expiration);
+			return remaining.isNegative() ? 0 : saturatedNanos(remaining);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+			return this.expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		private static long saturatedNanos(Duration duration) {
+			try {
+				return duration.toNanos();
+			} catch (ArithmeticException e) {
+				return Long.MAX_VALUE;
+			}
+		}
+	}
+
+	/**
+	 * Verified token, with the keys that were used to verify it.
+	 */
+	private record CachedToken(VerifiedToken token, JWTKeyRing.KeySet keys) {
+	}
+}
@@ -0,0 +1,15 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.domain.model.Role;
+import java.time.Instant;
+
+/**
+ * Data of a JWT token whose signature and expiration have been verified.
+ *
+ * @param id         unique id of the token ({@code jti}), or {@code null} if it has none.
+ * @param subject    username of the owner of the token.
+ * @param role       role of the owner of the token.
+ * @param expiration instant when the token expires, or {@code null} if it never does.
+ */
+public record VerifiedToken(String id, String subject, Role role, Instant expiration) {
+}
@@ -2,6 +2,8 @@ package com.example.restspringtemplate.config.security;
 
 import com.example.restspringtemplate.config.security.filter.AuthenticationFilter;
 import com.example.restspringtemplate.config.security.filter.AuthorizationFilter;
+import com.example.restspringtemplate.router.Route;
+import com.example.restspringtemplate.router.RouteTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -12,16 +14,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import static com.example.restspringtemplate.router.Routes.DeleteRoute;
-import static com.example.restspringtemplate.router.Routes.GetRoute;
-import static com.example.restspringtemplate.router.Routes.PostRoute;
-import static com.example.restspringtemplate.router.Routes.PutRoute;
-import static com.example.restspringtemplate.router.Routes.ROOT_URL;
-import static com.example.restspringtemplate.router.Routes.TEST_URL;
-import static com.example.restspringtemplate.utils.Constants.LOW_TIER_ROLES;
-import static com.example.restspringtemplate.utils.Constants.MEDIUM_TIER_ROLES;
-import static com.example.restspringtemplate.utils.Constants.STRING_ARRAY;
-import static com.example.restspringtemplate.utils.Constants.TOP_TIER_ROLES;
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
 /**
@@ -34,6 +26,7 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 public class WebSecurityConfig {
 	private final AuthenticationFilter authenticationFilter;
 	private final AuthorizationFilter authorizationFilter;
+	private final FastPaths fastPaths;
 
 	/**
 	 * Configures the security for the application.
@@ -59,64 +52,42 @@ public class WebSecurityConfig {
 	}
 
 	/**
-	 * Registers the routes that are allowed for the <b>authenticated</b> user.
+	 * Registers all the public routes (see {@link FastPaths}). These routes do
+	 * not need authentication, but they still go through the security chain,
+	 * so that the HTTPS redirection and the security headers apply to them.
 	 *
 	 * @param http {@link HttpSecurity} object.
 	 *
 	 * @throws Exception if an error occurs.
 	 */
-	private void privateRoutes(HttpSecurity http) throws Exception {
-		registerRoutesOfTier(http, LOW_TIER_ROLES.toArray(STRING_ARRAY),
-			GetRoute.INSTANCE.lowTierRoutes(), PostRoute.INSTANCE.lowTierRoutes(),
-			PutRoute.INSTANCE.lowTierRoutes(), DeleteRoute.INSTANCE.lowTierRoutes());
-		registerRoutesOfTier(http, MEDIUM_TIER_ROLES.toArray(STRING_ARRAY),
-			GetRoute.INSTANCE.mediumTierRoutes(), PostRoute.INSTANCE.mediumTierRoutes(),
-			PutRoute.INSTANCE.mediumTierRoutes(), DeleteRoute.INSTANCE.mediumTierRoutes());
-		registerRoutesOfTier(http, TOP_TIER_ROLES.toArray(STRING_ARRAY),
-			GetRoute.INSTANCE.topTierRoutes(), PostRoute.INSTANCE.topTierRoutes(),
-			PutRoute.INSTANCE.topTierRoutes(), DeleteRoute.INSTANCE.topTierRoutes());
-
+	private void publicRoutes(HttpSecurity http) throws Exception {
 		http.authorizeHttpRequests()
-		    .anyRequest()
-		    .authenticated();
-	}
-
-	/**
-	 * Generalizes the registration of the routes for a concrete tier.
-	 *
-	 * @param http         {@link HttpSecurity} object.
-	 * @param allowedRoles {@link String} array of the allowed roles for the specified routes.
-	 * @param getRoutes    {@link GetRoute} array of get routes.
-	 * @param postRoutes   {@link PostRoute} array of post routes.
-	 * @param putRoutes    {@link PutRoute} array of put routes.
-	 * @param deleteRoutes {@link DeleteRoute} array of delete routes.
-	 *
-	 * @throws Exception if an error occurs.
-	 */
-	private static void registerRoutesOfTier(HttpSecurity http,
-	                                         String[] allowedRoles,
-	                                         String[] getRoutes,
-	                                         String[] postRoutes,
-	                                         String[] putRoutes,
-	                                         String[] deleteRoutes) throws Exception {
-		new RouterSecurityConfig(http, allowedRoles)
-			.registerRoutes(HttpMethod.GET, getRoutes)
-			.registerRoutes(HttpMethod.POST, postRoutes)
-			.registerRoutes(HttpMethod.PUT, putRoutes)
-			.registerRoutes(HttpMethod.DELETE, deleteRoutes);
+		    .requestMatchers(this.fastPaths::isPublic)
+		    .permitAll();
 	}
 
 	/**
-	 * Registers all the public routes. These routes do not need authentication.
+	 * Registers the routes that are allowed for the <b>authenticated</b> user.
+	 * All of them, collected from the controllers at compile time into the
+	 * {@link RouteTable}, are compiled into a single
+	 * {@link RouteAuthorizationManager}, which authorizes each request with one
+	 * lookup.
 	 *
 	 * @param http {@link HttpSecurity} object.
 	 *
 	 * @throws Exception if an error occurs.
 	 */
-	private void publicRoutes(HttpSecurity http) throws Exception {
+	private void privateRoutes(HttpSecurity http) throws Exception {
+		RouteAuthorizationManager.Builder routes = RouteAuthorizationManager.builder();
+
+		for (Route route : RouteTable.ROUTES) {
+			routes.registerRoutes(HttpMethod.valueOf(route.method()), route.allowedRoles(), route.path());
+		}
+
+		// The routes that are not registered only need the user to be authenticated.
 		http.authorizeHttpRequests()
-		    .requestMatchers(ROOT_URL, TEST_URL)
-		    .permitAll();
+		    .anyRequest()
+		    .access(routes.build());
 	}
 
 	/**
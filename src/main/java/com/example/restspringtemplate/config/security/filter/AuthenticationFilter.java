@@ -1,7 +1,11 @@
 package com.example.restspringtemplate.config.security.filter;
 
 import com.example.restspringtemplate.config.security.JWTService;
+import com.example.restspringtemplate.config.security.ratelimit.LoginRateLimiter;
+import com.example.restspringtemplate.domain.model.Role;
 import com.example.restspringtemplate.exceptions.CouldNotAuthenticateException;
+import com.example.restspringtemplate.exceptions.ServiceUnavailableException;
+import com.example.restspringtemplate.exceptions.TooManyRequestsException;
 import com.example.restspringtemplate.net.http.HttpRequest;
 import com.example.restspringtemplate.net.http.HttpResponse;
 import com.google.gson.JsonObject;
@@ -22,6 +26,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import java.io.IOException;
 
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
 /**
  * Filter that authenticates the incoming requests.
  */
@@ -31,6 +39,7 @@ import java.io.IOException;
 public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 	private final AuthenticationManager authenticationManager;
 	private final JWTService jwtService;
+	private final LoginRateLimiter loginRateLimiter;
 
 	/**
 	 * Dependency injection for the authentication manager.
@@ -41,15 +50,27 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 		super.setAuthenticationManager(authenticationManager);
 	}
 
+	/**
+	 * Authenticates the user with the credentials of the body of the request.
+	 * <p>
+	 * The limits of the login attempts are checked before the password, so the
+	 * attempts that exceed them are rejected without hashing anything.
+	 * <p>
+	 * {@inheritDoc}
+	 */
 	@Override
 	public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) throws AuthenticationException {
+		this.loginRateLimiter.checkAddress(request.getRemoteAddr());
+
 		try {
-			HttpRequest req = new HttpRequest(request);
+			HttpRequest req = HttpRequest.from(request);
 			JsonObject jsonBody = req.body();
 
 			String username = jsonBody.get("username").getAsString();
 			String password = jsonBody.get("password").getAsString();
 
+			this.loginRateLimiter.checkUsername(username);
+
 			// We can take the info we need from the request after passing it into an ObjectMapper.
 			// request.getHeader("Authorization")
 			return this.authenticationManager.authenticate(
@@ -65,6 +86,22 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 	protected void unsuccessfulAuthentication(HttpServletRequest request,
 	                                          HttpServletResponse response,
 	                                          AuthenticationException failed) throws IOException {
+		if (failed instanceof TooManyRequestsException tooManyRequests) {
+			// Already logged by the limiter.
+			response.setHeader(RETRY_AFTER, String.valueOf(tooManyRequests.getRetryAfterSeconds()));
+			new HttpResponse(response).status(TOO_MANY_REQUESTS)
+			                          .send(failed.getMessage());
+			return;
+		}
+
+		if (failed instanceof ServiceUnavailableException) {
+			// The password could not be checked, so the client should retry later.
+			log.warn("Authentication rejected: {}", failed.getMessage());
+			new HttpResponse(response).status(SERVICE_UNAVAILABLE)
+			                          .send(failed.getMessage());
+			return;
+		}
+
 		log.warn("Authentication failed", failed);
 		new HttpResponse(response)
 			.badRequest() // Since the check for the user is only done one time, the exceptional case is that the user is not registered.
@@ -76,16 +113,18 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 	                                        HttpServletResponse response,
 	                                        FilterChain chain,
 	                                        Authentication authentication) throws IOException, ServletException {
-		HttpRequest req = new HttpRequest(request);
+		HttpRequest req = HttpRequest.from(request); // Same instance (and parsed body) used by attemptAuthentication
 		User user = (User) authentication.getPrincipal();
 
 		String token = this.jwtService.generateToken(
 			user.getUsername(),
 			request.getRequestURL().toString(),
-			user.getAuthorities()
-			    .iterator()
-			    .next() // We only have one role per user, so we take it.
-			    .getAuthority(),
+			Role.valueOf(
+				user.getAuthorities()
+				    .iterator()
+				    .next() // We only have one role per user, so we take it.
+				    .getAuthority()
+			),
 			req.body().get("remember").getAsBoolean()
 		);
 
@@ -1,6 +1,12 @@
 package com.example.restspringtemplate.config.security.filter;
 
-import com.example.restspringtemplate.config.security.JWTService;
+import com.example.restspringtemplate.config.security.FastPaths;
+import com.example.restspringtemplate.config.security.TokenAuthentication;
+import com.example.restspringtemplate.config.security.TokenCache;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import com.example.restspringtemplate.config.security.ratelimit.QuotaService;
+import com.example.restspringtemplate.config.security.ratelimit.RateLimit;
+import com.example.restspringtemplate.config.security.revocation.TokenRevocationService;
 import com.example.restspringtemplate.net.http.HttpResponse;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,28 +15,56 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
-import static com.example.restspringtemplate.router.Routes.TEST_URL;
 import static com.example.restspringtemplate.utils.Constants.JWT_TOKEN_PREFIX;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
-import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 /**
  * Filter that checks if the user is authorized to access the resource.
+ * <p>
+ * The tokens are verified through a {@link TokenCache}, so each token is only
+ * parsed once while it is valid, and then checked against the revoked tokens.
+ * Finally, the request is taken from the quota of the user, which is
+ * described by the {@code RateLimit-*} headers of the response.
+ * <p>
+ * The requests without a token are answered with {@link
+ * org.springframework.http.HttpStatus#UNAUTHORIZED}, and the ones with an
+ * invalid or revoked token with {@link org.springframework.http.HttpStatus#FORBIDDEN}.
+ * <p>
+ * The requests to the public paths (see {@link FastPaths}) are not filtered,
+ * so no token is verified for them.
  */
 @Slf4j
 @WebFilter(filterName = "AuthorizationFilter")
 @RequiredArgsConstructor
 public class AuthorizationFilter extends OncePerRequestFilter {
-	private final JWTService jwtService;
+	private static final String RATE_LIMIT_LIMIT = "RateLimit-Limit";
+	private static final String RATE_LIMIT_REMAINING = "RateLimit-Remaining";
+	private static final String RATE_LIMIT_RESET = "RateLimit-Reset";
+
+	private final TokenCache tokenCache;
+	private final TokenRevocationService revocationService;
+	private final QuotaService quotaService;
+	private final FastPaths fastPaths;
+
+	/**
+	 * Skips the requests to the public paths, which do not need a token.
+	 * <p>
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return this.fastPaths.isPublic(request);
+	}
 
 	/**
 	 * Checks if the user is authorized to access the resource, sets the authentication
@@ -47,35 +81,39 @@ public class AuthorizationFilter extends OncePerRequestFilter {
 	protected void doFilterInternal(HttpServletRequest request,
 	                                HttpServletResponse response,
 	                                FilterChain chain) throws ServletException, IOException {
-		if (this.isUnknownPath(request.getServletPath())) {
-			new HttpResponse(response).sendStatus(NOT_FOUND);
-			return;
-		}
-
-		if (this.isExcludedPath(request.getServletPath())) {
-			chain.doFilter(request, response);
-			return;
-		}
-
 		String token = request.getHeader(AUTHORIZATION);
 
 		if (token == null || !token.startsWith(JWT_TOKEN_PREFIX)) {
-			// All routes need the JWT token except for the routes excluded above.
-			log.error("Authorization header is missing or invalid.");
-			throw new ServletException("Missing or invalid Authorization header.");
+			// All routes need the JWT token, except for the public ones (which are not filtered).
+			log.warn("Rejected request to {}: the Authorization header is missing or invalid", request.getServletPath());
+			response.setHeader(WWW_AUTHENTICATE, JWT_TOKEN_PREFIX.trim());
+			new HttpResponse(response).status(UNAUTHORIZED)
+			                          .send("Missing or invalid Authorization header.");
+			return;
 		}
 
 		try {
-			String username = this.jwtService.getUsername(token);
-			String role = this.jwtService.getClaim(token, claims -> claims.get("role", String.class));
+			VerifiedToken verified = this.tokenCache.verify(token);
+
+			if (this.revocationService.isRevoked(verified)) {
+				log.warn("Rejected revoked token {} of {}", verified.id(), verified.subject());
+				new HttpResponse(response).status(FORBIDDEN)
+				                          .send("The token has been revoked.");
+				return;
+			}
 
-			SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
-			UsernamePasswordAuthenticationToken authenticationToken =
-				new UsernamePasswordAuthenticationToken(
-					username, null, Collections.singleton(authority)
-				);
+			RateLimit quota = this.quotaService.tryAcquire(verified);
+			this.setRateLimitHeaders(response, quota);
 
-			SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+			if (!quota.allowed()) {
+				log.warn("Rejected request of {}: quota exceeded", verified.subject());
+				response.setHeader(RETRY_AFTER, String.valueOf(quota.retryAfterSeconds()));
+				new HttpResponse(response).status(TOO_MANY_REQUESTS)
+				                          .send("The request quota has been exceeded.");
+				return;
+			}
+
+			SecurityContextHolder.getContext().setAuthentication(new TokenAuthentication(verified));
 			chain.doFilter(request, response);
 		} catch (Exception e) {
 			log.error(e.getMessage(), e);
@@ -85,24 +123,18 @@ public class AuthorizationFilter extends OncePerRequestFilter {
 	}
 
 	/**
-	 * Checks if the path is excluded from the authorization filter.
-	 *
-	 * @param path the path to check.
+	 * Describes the quota of the user with the {@code RateLimit-*} headers.
 	 *
-	 * @return {@code true} if the path is excluded, {@code false} otherwise.
+	 * @param response the response to add the headers to.
+	 * @param quota    the state of the quota after the request.
 	 */
-	private boolean isExcludedPath(String path) {
-		return path.equals(TEST_URL);
-	}
+	private void setRateLimitHeaders(HttpServletResponse response, RateLimit quota) {
+		if (quota == RateLimit.UNLIMITED) {
+			return;
+		}
 
-	/**
-	 * Checks if the path is unknown.
-	 *
-	 * @param path the path to check.
-	 *
-	 * @return {@code true} if the path is unknown, {@code false} otherwise.
-	 */
-	private boolean isUnknownPath(String path) {
-		return path.equals("/favicon.ico");
+		response.setHeader(RATE_LIMIT_LIMIT, String.valueOf(quota.limit()));
+		response.setHeader(RATE_LIMIT_REMAINING, String.valueOf(quota.remaining()));
+		response.setHeader(RATE_LIMIT_RESET, String.valueOf(quota.resetSeconds()));
 	}
 }
@@ -1,8 +1,14 @@
 package com.example.restspringtemplate.config.security.filter;
 
+import com.example.restspringtemplate.config.security.FastPaths;
 import com.example.restspringtemplate.config.security.JWTService;
+import com.example.restspringtemplate.config.security.TokenCache;
+import com.example.restspringtemplate.config.security.ratelimit.LoginRateLimiter;
+import com.example.restspringtemplate.config.security.ratelimit.QuotaService;
+import com.example.restspringtemplate.config.security.revocation.TokenRevocationService;
 import com.example.restspringtemplate.domain.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,12 +27,18 @@ public class FilterBeans {
 	private final UserService userService;
 	private final PasswordEncoder passwordEncoder;
 	private final JWTService jwtService;
+	private final TokenCache tokenCache;
+	private final TokenRevocationService revocationService;
+	private final LoginRateLimiter loginRateLimiter;
+	private final QuotaService quotaService;
+	private final FastPaths fastPaths;
 
 	@Bean
 	public AuthenticationProvider authenticationProvider() {
 		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
 		provider.setUserDetailsService(this.userService);
 		provider.setPasswordEncoder(this.passwordEncoder);
+		provider.setUserDetailsPasswordService(this.userService);
 		return provider;
 	}
 
@@ -39,7 +51,8 @@ public class FilterBeans {
 	public AuthenticationFilter authenticationFilter() {
 		AuthenticationFilter authenticationFilter = new AuthenticationFilter(
 			this.authenticationManager(),
-			this.jwtService
+			this.jwtService,
+			this.loginRateLimiter
 		);
 
 		authenticationFilter.setFilterProcessesUrl(LOGIN_URL);
@@ -48,6 +61,21 @@ public class FilterBeans {
 
 	@Bean
 	public AuthorizationFilter authorizationFilter() {
-		return new AuthorizationFilter(this.jwtService);
+		return new AuthorizationFilter(this.tokenCache, this.revocationService, this.quotaService, this.fastPaths);
+	}
+
+	/**
+	 * Prevents the authentication filter from being registered in the servlet
+	 * container, as it only has to run inside the security chain.
+	 *
+	 * @param filter the authentication filter.
+	 *
+	 * @return the disabled registration of the filter.
+	 */
+	@Bean
+	public FilterRegistrationBean<AuthenticationFilter> authenticationFilterRegistration(AuthenticationFilter filter) {
+		FilterRegistrationBean<AuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.setEnabled(false);
+		return registration;
 	}
 }
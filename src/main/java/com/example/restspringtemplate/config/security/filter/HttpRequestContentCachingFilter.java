@@ -1,11 +1,18 @@
 package com.example.restspringtemplate.config.security.filter;
 
+import com.example.restspringtemplate.config.properties.HttpRequestProperties;
+import com.example.restspringtemplate.config.security.FastPaths;
+import com.example.restspringtemplate.exceptions.PayloadTooLargeException;
 import com.example.restspringtemplate.net.http.HttpRequest;
+import com.example.restspringtemplate.net.http.HttpResponse;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -14,6 +21,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+
 /**
  * Class that caches the request received in the server. This allows to
  * read the body of the request multiple times.
@@ -28,17 +38,102 @@ import java.io.IOException;
 @Order(value = Ordered.HIGHEST_PRECEDENCE)
 @WebFilter(filterName = "ContentCachingFilter", urlPatterns = "/*")
 @Component
+@RequiredArgsConstructor
 public class HttpRequestContentCachingFilter extends OncePerRequestFilter {
+	private final HttpRequestProperties properties;
+	private final FastPaths fastPaths;
+
 	/**
 	 * Wraps the request into a {@link HttpRequest}. This allows to read the body
 	 * of the request multiple times.
 	 * <p>
+	 * The requests to the {@link FastPaths} are not wrapped: the ones to public
+	 * paths are passed through as they are, and the ones to ignored paths are
+	 * answered with {@link org.springframework.http.HttpStatus#NOT_FOUND}.
+	 * <p>
+	 * Requests whose body is larger than the maximum allowed for the route are
+	 * rejected with {@link org.springframework.http.HttpStatus#PAYLOAD_TOO_LARGE}:
+	 * before reading anything if the declared length is too large, or as soon as
+	 * the limit is exceeded while reading the body otherwise.
+	 * <p>
+	 * The resources used to hold the body are always released (and temporary
+	 * files deleted) when the request has been handled: when the chain returns
+	 * for synchronous requests, or when the processing completes (or fails)
+	 * for asynchronous ones, which may still read the body after the chain
+	 * has returned.
+	 * <p>
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected void doFilterInternal(HttpServletRequest request,
 	                                HttpServletResponse response,
 	                                FilterChain filterChain) throws ServletException, IOException {
-		filterChain.doFilter(new HttpRequest(request), response);
+		if (this.fastPaths.isIgnored(request)) {
+			new HttpResponse(response).sendStatus(NOT_FOUND);
+			return;
+		}
+
+		if (this.fastPaths.isPublic(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long maxBodySize = this.properties.maxBodySizeOf(request.getServletPath());
+
+		if (request.getContentLengthLong() > maxBodySize) {
+			log.warn("Rejected request to {} with a body of {} bytes", request.getServletPath(), request.getContentLengthLong());
+			new HttpResponse(response).status(PAYLOAD_TOO_LARGE)
+			                          .send("The request body must not exceed " + maxBodySize + " bytes.");
+			return;
+		}
+
+		HttpRequest httpRequest = new HttpRequest(request, maxBodySize, this.properties.getSpillThreshold().toBytes());
+
+		try {
+			filterChain.doFilter(httpRequest, response);
+		} catch (PayloadTooLargeException e) {
+			log.warn("Rejected request to {}: {}", request.getServletPath(), e.getMessage());
+
+			if (!response.isCommitted()) {
+				new HttpResponse(response).status(PAYLOAD_TOO_LARGE)
+				                          .send(e.getMessage());
+			}
+		} finally {
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new ReleaseListener(httpRequest));
+			} else {
+				httpRequest.release();
+			}
+		}
+	}
+
+	/**
+	 * Listener that releases the body of an asynchronous request once its
+	 * processing has finished.
+	 */
+	@RequiredArgsConstructor
+	private static final class ReleaseListener implements AsyncListener {
+		private final HttpRequest request;
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			this.request.release();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			this.request.release();
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			this.request.release();
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			// The listeners are removed when the processing is restarted.
+			event.getAsyncContext().addListener(this);
+		}
 	}
 }
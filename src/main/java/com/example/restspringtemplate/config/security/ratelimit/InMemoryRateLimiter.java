@@ -0,0 +1,135 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RateLimiter} that keeps a token bucket per key in memory.
+ * <p>
+ * The buckets follow the generic cell rate algorithm: each one is a single
+ * {@link AtomicLong} with the theoretical arrival time of the next request,
+ * which is advanced with a compare-and-set, so the requests never lock. A
+ * bucket that has not been used for a whole period is full again, so it is
+ * evicted without changing the result of the next request. The number of
+ * buckets is bounded: when there are too many keys, the least used ones are
+ * evicted (and their clients get a full bucket again).
+ */
+public class InMemoryRateLimiter implements RateLimiter {
+	private final long capacity;
+	private final long period;
+	private final long interval;
+	private final Ticker ticker;
+	private final long origin;
+	private final Cache<String, AtomicLong> buckets;
+
+	private final Counter allowed;
+	private final Counter rejected;
+
+	/**
+	 * Constructs a limiter that accepts {@code capacity} requests per
+	 * {@code period} for each key, all of them at once if the bucket is full.
+	 *
+	 * @param name          name of the limiter, used to tag its metrics.
+	 * @param capacity      number of requests that a full bucket holds.
+	 * @param period        time that an empty bucket takes to be full again.
+	 * @param maximumKeys   maximum number of buckets kept in memory.
+	 * @param meterRegistry registry of the metrics of the limiter.
+	 *
+	 * @throws IllegalArgumentException if the capacity or the period are not positive.
+	 */
+	public InMemoryRateLimiter(String name,
+	                           long capacity,
+	                           Duration period,
+	                           long maximumKeys,
+	                           MeterRegistry meterRegistry) {
+		this(name, capacity, period, maximumKeys, meterRegistry, Ticker.systemTicker());
+	}
+
+	/**
+	 * Constructs a limiter like
+	 * {@link #InMemoryRateLimiter(String, long, Duration, long, MeterRegistry)},
+	 * that reads the time from the given ticker.
+	 *
+	 * @param ticker source of the time (in nanoseconds) of the buckets and their eviction.
+	 */
+	InMemoryRateLimiter(String name,
+	                    long capacity,
+	                    Duration period,
+	                    long maximumKeys,
+	                    MeterRegistry meterRegistry,
+	                    Ticker ticker) {
+		if (capacity <= 0 || period.isNegative() || period.isZero()) {
+			throw new IllegalArgumentException("The capacity and the period of the rate limiter must be positive");
+		}
+
+		this.capacity = capacity;
+		this.period = period.toNanos();
+		this.interval = Math.max(1, this.period / capacity);
+		this.ticker = ticker;
+		this.origin = ticker.read();
+		this.buckets = Caffeine.newBuilder()
+		                       .maximumSize(maximumKeys)
+		                       .expireAfterAccess(period)
+		                       .ticker(ticker)
+		                       .build();
+
+		this.allowed = Counter.builder("security.rate-limit.requests")
+		                      .description("Requests checked by the rate limiter")
+		                      .tag("limiter", name)
+		                      .tag("outcome", "allowed")
+		                      .register(meterRegistry);
+		this.rejected = Counter.builder("security.rate-limit.requests")
+		                       .description("Requests checked by the rate limiter")
+		                       .tag("limiter", name)
+		                       .tag("outcome", "rejected")
+		                       .register(meterRegistry);
+		Gauge.builder("security.rate-limit.keys", this.buckets, Cache::estimatedSize)
+		     .description("Number of buckets kept by the rate limiter")
+		     .tag("limiter", name)
+		     .register(meterRegistry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RateLimit tryAcquire(String key) {
+		AtomicLong bucket = this.buckets.get(key, k -> new AtomicLong());
+
+		while (true) {
+			long now = this.ticker.read() - this.origin;
+			long arrival = bucket.get();
+			long next = Math.max(arrival, now) + this.interval;
+			long wait = next - now - this.period;
+
+			if (wait > 0) {
+				this.rejected.increment();
+				return new RateLimit(
+					false,
+					this.capacity,
+					0,
+					Duration.ofNanos(Math.max(0, arrival - now)),
+					Duration.ofNanos(wait)
+				);
+			}
+
+			if (bucket.compareAndSet(arrival, next)) {
+				this.allowed.increment();
+				return new RateLimit(
+					true,
+					this.capacity,
+					Math.min(this.capacity, (this.period - (next - now)) / this.interval),
+					Duration.ofNanos(next - now),
+					Duration.ZERO
+				);
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import com.example.restspringtemplate.config.properties.Bandwidth;
+import com.example.restspringtemplate.config.properties.LoginRateLimitProperties;
+import com.example.restspringtemplate.exceptions.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits of the login attempts, which are checked before hashing the password
+ * so that guessing passwords (or flooding the server with logins) is not
+ * cheaper than rejecting them.
+ * <p>
+ * The attempts are limited per address, which stops a client from trying many
+ * usernames, and per username, which stops many clients from trying the
+ * passwords of the same user.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+	private final RateLimiter perAddress;
+	private final RateLimiter perUsername;
+
+	public LoginRateLimiter(LoginRateLimitProperties properties, RateLimiterFactory factory) {
+		this.perAddress = create("login.address", properties, properties.getPerAddress(), factory);
+		this.perUsername = create("login.username", properties, properties.getPerUsername(), factory);
+	}
+
+	private static RateLimiter create(String name,
+	                                  LoginRateLimitProperties properties,
+	                                  Bandwidth bandwidth,
+	                                  RateLimiterFactory factory) {
+		if (!properties.isEnabled()) {
+			return key -> RateLimit.UNLIMITED;
+		}
+
+		return factory.create(name, bandwidth, properties.getMaximumKeys());
+	}
+
+	/**
+	 * Checks the limit of the attempts made from the given address.
+	 *
+	 * @param address address of the client.
+	 *
+	 * @throws TooManyRequestsException if the client has made too many attempts.
+	 */
+	public void checkAddress(String address) {
+		check(this.perAddress.tryAcquire(address), "address", address);
+	}
+
+	/**
+	 * Checks the limit of the attempts made for the given username.
+	 *
+	 * @param username username of the user.
+	 *
+	 * @throws TooManyRequestsException if there have been too many attempts for the user.
+	 */
+	public void checkUsername(String username) {
+		check(this.perUsername.tryAcquire(username), "username", username);
+	}
+
+	private static void check(RateLimit limit, String kind, String key) {
+		if (!limit.allowed()) {
+			log.warn("Too many login attempts for {} {}", kind, key);
+			throw new TooManyRequestsException("Too many login attempts, try again later.", limit.retryAfterSeconds());
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import com.example.restspringtemplate.config.properties.QuotaProperties;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import com.example.restspringtemplate.domain.model.Role;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Quotas of the requests made by the authenticated users, which depend on the
+ * tier of their role.
+ * <p>
+ * Each tier has its own {@link RateLimiter}, so the users of a tier never
+ * share buckets (nor evict them) with the users of another one: a client
+ * that floods the server only exhausts its own quota, and is rejected before
+ * its requests reach the controllers. The more privileged the role
+ * (see {@link Role}), the larger the default quota.
+ */
+@Service
+public class QuotaService {
+	/**
+	 * Limiter of each role, indexed by its ordinal.
+	 */
+	private final RateLimiter[] limiters = new RateLimiter[Role.values().length];
+
+	public QuotaService(QuotaProperties properties, RateLimiterFactory factory) {
+		if (!properties.isEnabled()) {
+			Arrays.fill(this.limiters, (RateLimiter) key -> RateLimit.UNLIMITED);
+			return;
+		}
+
+		properties.getTiers().forEach((name, bandwidth) -> {
+			Role role = Role.valueOf(name.toUpperCase(Locale.ROOT));
+			this.limiters[role.ordinal()] = factory.create("quota." + role.name(), bandwidth, properties.getMaximumKeys());
+		});
+
+		// The roles without a quota get the one of the least privileged tier.
+		RateLimiter leastPrivileged = this.limiters[Role.TOP.ordinal()];
+
+		if (leastPrivileged == null) {
+			throw new IllegalStateException("There is no quota for the " + Role.TOP + " tier");
+		}
+
+		for (int i = 0; i < this.limiters.length; i++) {
+			if (this.limiters[i] == null) {
+				this.limiters[i] = leastPrivileged;
+			}
+		}
+	}
+
+	/**
+	 * Takes a request from the quota of the owner of the given token.
+	 *
+	 * @param token the token of the request.
+	 *
+	 * @return the result of the request, with the state of the quota after it.
+	 */
+	public RateLimit tryAcquire(VerifiedToken token) {
+		return this.limiters[token.role().ordinal()].tryAcquire(token.subject());
+	}
+}
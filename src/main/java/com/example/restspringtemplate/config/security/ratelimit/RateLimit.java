@@ -0,0 +1,39 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Result of taking a token from the bucket of a {@link RateLimiter}.
+ *
+ * @param allowed    if the request has been accepted.
+ * @param limit      number of requests that the bucket holds when it is full.
+ * @param remaining  number of requests that can still be made without waiting.
+ * @param reset      time until the bucket is full again.
+ * @param retryAfter time until the next request is accepted ({@link Duration#ZERO}
+ *                   if the request has been accepted).
+ */
+public record RateLimit(boolean allowed, long limit, long remaining, Duration reset, Duration retryAfter) {
+	/**
+	 * Result of the requests that are not limited.
+	 */
+	public static final RateLimit UNLIMITED = new RateLimit(true, Long.MAX_VALUE, Long.MAX_VALUE, Duration.ZERO, Duration.ZERO);
+
+	/**
+	 * @return the seconds until the bucket is full again, rounded up.
+	 */
+	public long resetSeconds() {
+		return ceilSeconds(this.reset);
+	}
+
+	/**
+	 * @return the seconds until the next request is accepted, rounded up, as
+	 * sent in the {@code Retry-After} header.
+	 */
+	public long retryAfterSeconds() {
+		return ceilSeconds(this.retryAfter);
+	}
+
+	private static long ceilSeconds(Duration duration) {
+		return duration.getNano() == 0 ? duration.getSeconds() : duration.getSeconds() + 1;
+	}
+}
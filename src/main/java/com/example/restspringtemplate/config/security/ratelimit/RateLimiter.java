@@ -0,0 +1,17 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+/**
+ * Limiter of the rate at which the requests identified by a key are accepted.
+ * <p>
+ * The implementations must be thread-safe.
+ */
+public interface RateLimiter {
+	/**
+	 * Takes a token from the bucket of the given key, if there is any left.
+	 *
+	 * @param key key identifying the client (an address, a username...).
+	 *
+	 * @return the result of the request, with the state of the bucket after it.
+	 */
+	RateLimit tryAcquire(String key);
+}
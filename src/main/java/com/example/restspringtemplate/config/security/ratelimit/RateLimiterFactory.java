@@ -0,0 +1,22 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import com.example.restspringtemplate.config.properties.Bandwidth;
+
+/**
+ * Creates the {@link RateLimiter}s of the application, so that the store of
+ * the buckets can be replaced (for example, by one shared by all the
+ * instances of the application) by providing another factory bean.
+ */
+@FunctionalInterface
+public interface RateLimiterFactory {
+	/**
+	 * Creates a rate limiter.
+	 *
+	 * @param name        name of the limiter, used to tag its metrics.
+	 * @param bandwidth   requests allowed for each key.
+	 * @param maximumKeys maximum number of keys tracked at the same time.
+	 *
+	 * @return the rate limiter.
+	 */
+	RateLimiter create(String name, Bandwidth bandwidth, long maximumKeys);
+}
@@ -0,0 +1,106 @@
+package com.example.restspringtemplate.config.security.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings, which can be read and written concurrently without
+ * locks. It never reports that a string it contains is absent, but it may
+ * report that a string is present when it is not (with the configured
+ * probability).
+ * <p>
+ * The strings cannot be removed, so the filter has to be rebuilt to forget them.
+ */
+final class BloomFilter {
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * Constructs an empty filter.
+	 *
+	 * @param expectedInsertions  number of strings expected to be added.
+	 * @param falsePositiveRate   probability of reporting that a string is present when
+	 *                            it is not, once the expected strings have been added.
+	 */
+	BloomFilter(long expectedInsertions, double falsePositiveRate) {
+		long n = Math.max(1, expectedInsertions);
+		long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+
+		this.words = new AtomicLongArray(words);
+		this.bitCount = (long) words << 6;
+		this.hashCount = (int) Math.max(1, Math.round((double) this.bitCount / n * Math.log(2)));
+	}
+
+	/**
+	 * Adds a string to the filter.
+	 *
+	 * @param value the string to add.
+	 */
+	void add(String value) {
+		long hash = hash(value);
+		long h1 = hash;
+		long h2 = mix(hash) | 1; // Odd, so that the probes never repeat the same bit
+
+		for (int i = 0; i < this.hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+			int index = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long word;
+
+			do {
+				word = this.words.get(index);
+			} while ((word & mask) == 0 && !this.words.compareAndSet(index, word, word | mask));
+		}
+	}
+
+	/**
+	 * Checks if a string may have been added to the filter.
+	 *
+	 * @param value the string to check.
+	 *
+	 * @return {@code false} if the string has never been added, {@code true} if
+	 * it may have been added.
+	 */
+	boolean mightContain(String value) {
+		long hash = hash(value);
+		long h1 = hash;
+		long h2 = mix(hash) | 1; // Odd, so that the probes never repeat the same bit
+
+		for (int i = 0; i < this.hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+
+			if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the characters of the string.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+
+		return mix(hash);
+	}
+
+	/**
+	 * Finalization step of MurmurHash3, which spreads the bits of the hash.
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.restspringtemplate.config.security.revocation;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link RevocationStore} that keeps the revoked tokens in memory. The
+ * revocations are lost when the application is restarted, and they are not
+ * shared between instances: a persistent store must be provided as a
+ * {@link org.springframework.context.annotation.Primary @Primary} bean to
+ * replace this one in those cases (and report that it is
+ * {@linkplain #isShared() shared}).
+ */
+public class InMemoryRevocationStore implements RevocationStore {
+	private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+	@Override
+	public void revoke(String tokenId, Instant expiration) {
+		this.revoked.put(tokenId, expiration);
+	}
+
+	@Override
+	public boolean isRevoked(String tokenId) {
+		return this.revoked.containsKey(tokenId);
+	}
+
+	@Override
+	public void purgeExpired(Instant now) {
+		this.revoked.values().removeIf(expiration -> !expiration.isAfter(now));
+	}
+
+	@Override
+	public void forEach(BiConsumer<String, Instant> action) {
+		this.revoked.forEach(action);
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.restspringtemplate.config.security.revocation;
+
+import java.time.Instant;
+import java.util.function.BiConsumer;
+
+/**
+ * Store of the ids ({@code jti}) of the tokens that have been revoked. It holds
+ * the exact set of revoked tokens. Local stores are only queried when the
+ * {@link BloomFilter} of the {@link TokenRevocationService} reports that a
+ * token may have been revoked, while shared stores are queried for every token
+ * (see {@link #isShared()}).
+ * <p>
+ * The implementations must be thread-safe.
+ */
+public interface RevocationStore {
+	/**
+	 * Revokes a token.
+	 *
+	 * @param tokenId    id of the token.
+	 * @param expiration instant when the token expires, after which it no longer
+	 *                   needs to be stored.
+	 */
+	void revoke(String tokenId, Instant expiration);
+
+	/**
+	 * Checks if a token has been revoked.
+	 *
+	 * @param tokenId id of the token.
+	 *
+	 * @return {@code true} if the token has been revoked, {@code false} otherwise.
+	 */
+	boolean isRevoked(String tokenId);
+
+	/**
+	 * Removes the tokens that have already expired.
+	 *
+	 * @param now current instant.
+	 */
+	void purgeExpired(Instant now);
+
+	/**
+	 * Performs the given action for each revoked token.
+	 *
+	 * @param action action that receives the id and the expiration of each token.
+	 */
+	void forEach(BiConsumer<String, Instant> action);
+
+	/**
+	 * Checks if the store can be modified without going through this instance of
+	 * the application, as a store shared between instances (or a persistent one
+	 * updated by other processes). The filter of the {@link TokenRevocationService}
+	 * only knows about the revocations made through this instance, so it can not
+	 * prove that a token has not been revoked in a shared store, and it is
+	 * bypassed for them: shared stores should keep their own cache if their
+	 * lookups are expensive.
+	 *
+	 * @return {@code true} if the store is shared, {@code false} if it is only
+	 * modified through this instance (the default).
+	 */
+	default boolean isShared() {
+		return false;
+	}
+}
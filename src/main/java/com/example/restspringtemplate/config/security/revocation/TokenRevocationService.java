@@ -0,0 +1,117 @@
+package com.example.restspringtemplate.config.security.revocation;
+
+import com.example.restspringtemplate.config.properties.RevocationProperties;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Revocation of the JWT tokens, identified by their id ({@code jti}).
+ * <p>
+ * The revoked tokens are kept in a {@link RevocationStore}, fronted by a
+ * {@link BloomFilter}: most tokens have not been revoked, and the filter
+ * proves it with a few hash probes and no locks, so the store is only queried
+ * when the filter reports that the token may have been revoked. The filter only
+ * learns about the revocations made through this instance, so it is bypassed
+ * for {@linkplain RevocationStore#isShared() shared stores}, which are queried
+ * for every token: a revocation made by another instance is never missed.
+ * <p>
+ * The revocations are forgotten when the tokens expire: the store is purged
+ * periodically and the filter is rebuilt with the remaining revocations, so
+ * the memory used is bounded by the number of tokens revoked before expiring.
+ * The tokens without id (issued before the revocations existed) can not be revoked.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+	private final RevocationStore store;
+	private final Clock clock;
+	private final RevocationProperties properties;
+
+	private volatile BloomFilter filter;
+
+	/**
+	 * Number of revocations added to the filter, and number of them it was sized for.
+	 * Both are guarded by the lock of this object.
+	 */
+	private long filterSize;
+	private long filterCapacity;
+
+	public TokenRevocationService(RevocationStore store, Clock clock, RevocationProperties properties) {
+		this.store = store;
+		this.clock = clock;
+		this.properties = properties;
+		this.rebuildFilter();
+	}
+
+	/**
+	 * Revokes the given token, so that it is rejected until it expires.
+	 *
+	 * @param token the token to revoke.
+	 *
+	 * @throws IllegalArgumentException if the token has no id.
+	 */
+	public void revoke(VerifiedToken token) {
+		if (token.id() == null) {
+			throw new IllegalArgumentException("Tokens without id can not be revoked");
+		}
+
+		// Tokens without expiration are kept until the application is restarted.
+		Instant expiration = token.expiration() != null ? token.expiration() : Instant.MAX;
+
+		synchronized (this) {
+			this.store.revoke(token.id(), expiration);
+			this.filter.add(token.id());
+
+			// The false positive rate grows quickly once the filter is full.
+			if (++this.filterSize > this.filterCapacity) {
+				this.rebuildFilter();
+			}
+		}
+
+		log.info("Revoked token {} of {}", token.id(), token.subject());
+	}
+
+	/**
+	 * Checks if the given token has been revoked.
+	 *
+	 * @param token the token to check.
+	 *
+	 * @return {@code true} if the token has been revoked, {@code false} otherwise.
+	 */
+	public boolean isRevoked(VerifiedToken token) {
+		String id = token.id();
+		return id != null && (this.store.isShared() || this.filter.mightContain(id)) && this.store.isRevoked(id);
+	}
+
+	/**
+	 * Removes the revocations of the tokens that have already expired, and
+	 * rebuilds the filter without them.
+	 */
+	@Scheduled(fixedDelayString = "${security.revocation.purge-interval:PT10M}")
+	public void purgeExpired() {
+		this.store.purgeExpired(this.clock.instant());
+		this.rebuildFilter();
+	}
+
+	/**
+	 * Builds a new filter with the revocations of the store. The filter is sized
+	 * for the expected revocations, or twice the current ones if there are more.
+	 */
+	private synchronized void rebuildFilter() {
+		long[] count = {0};
+		this.store.forEach((id, expiration) -> count[0]++);
+
+		long expected = Math.max(this.properties.getExpectedRevocations(), count[0] * 2);
+		BloomFilter rebuilt = new BloomFilter(expected, this.properties.getFalsePositiveRate());
+		this.store.forEach((id, expiration) -> rebuilt.add(id));
+
+		this.filter = rebuilt;
+		this.filterSize = count[0];
+		this.filterCapacity = expected;
+	}
+}
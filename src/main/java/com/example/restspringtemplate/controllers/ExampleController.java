@@ -1,8 +1,12 @@
 package com.example.restspringtemplate.controllers;
 
+import com.example.restspringtemplate.domain.model.Role;
 import com.example.restspringtemplate.net.http.HttpRequest;
 import com.example.restspringtemplate.net.http.HttpResponse;
+import com.example.restspringtemplate.net.http.StaticResponseRegistry;
+import com.example.restspringtemplate.router.Tier;
 import com.google.gson.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,11 +20,22 @@ import java.io.IOException;
 @RestController
 @RequiredArgsConstructor
 public class ExampleController {
+	private static final String HELLO_WORLD = "example.hello-world";
+
+	private final StaticResponseRegistry staticResponses;
+
+	@PostConstruct
+	public void registerStaticResponses() {
+		this.staticResponses.register(HELLO_WORLD, "Hello world!");
+	}
+
+	@Tier(Role.TOP)
 	@GetMapping("/example")
 	public void getExample(HttpServletResponse res) throws IOException {
-		new HttpResponse(res).ok().send("Hello world!");
+		new HttpResponse(res).ok().withETag().send(this.staticResponses.get(HELLO_WORLD));
 	}
 
+	@Tier(Role.TOP)
 	@PostMapping("/example/post")
 	public void postExample(HttpRequest request, HttpServletResponse res) throws IOException {
 		HttpResponse response = new HttpResponse(res);
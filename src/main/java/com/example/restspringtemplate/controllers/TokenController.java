@@ -0,0 +1,43 @@
+package com.example.restspringtemplate.controllers;
+
+import com.example.restspringtemplate.config.security.TokenAuthentication;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import com.example.restspringtemplate.config.security.revocation.TokenRevocationService;
+import com.example.restspringtemplate.domain.model.Role;
+import com.example.restspringtemplate.net.http.HttpResponse;
+import com.example.restspringtemplate.router.Tier;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+import static com.example.restspringtemplate.router.Routes.PostRoute.LOGOUT_URL;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+
+@RestController
+@RequiredArgsConstructor
+public class TokenController {
+	private final TokenRevocationService revocationService;
+
+	/**
+	 * Revokes the token of the request, so that it is rejected until it expires.
+	 * The tokens without id can not be revoked, and are answered with a 400.
+	 */
+	@Tier(Role.TOP)
+	@PostMapping(LOGOUT_URL)
+	public void logout(HttpServletResponse res) throws IOException {
+		TokenAuthentication authentication = (TokenAuthentication) SecurityContextHolder.getContext().getAuthentication();
+		VerifiedToken token = authentication.token();
+
+		if (token.id() == null) {
+			new HttpResponse(res).badRequest().send("The token has no id, so it can not be revoked.");
+			return;
+		}
+
+		this.revocationService.revoke(token);
+		new HttpResponse(res).sendStatus(NO_CONTENT);
+	}
+}
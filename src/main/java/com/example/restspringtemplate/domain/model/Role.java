@@ -0,0 +1,139 @@
+package com.example.restspringtemplate.domain.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Roles of the users, which are also their authorities.
+ * <p>
+ * The roles are declared from the most privileged ({@link #LOW}) to the least
+ * privileged ({@link #TOP}). The routes of a tier can be accessed by its role
+ * and by the more privileged ones (see the {@code *_TIER_ROLES} masks of
+ * {@link com.example.restspringtemplate.utils.Constants}), so the routes of the
+ * {@code TOP} tier are open to every user. The quotas of the requests follow
+ * the same order: the more privileged the role, the larger its quota.
+ * <p>
+ * Each role is a bit of a mask, so a set of roles (like the roles allowed
+ * to access a route) is a single {@code int}, and checking if a user has one
+ * of them is a single AND. The masks are stored in the JWT tokens, so the
+ * order of the roles must not change: new roles must be added at the end.
+ */
+public enum Role implements GrantedAuthority {
+	LOW,
+	MEDIUM,
+	TOP;
+
+	private static final Role[] VALUES = values();
+
+	private final int mask = 1 << this.ordinal();
+	private final List<Role> authorities = List.of(this);
+
+	/**
+	 * @return the bit of this role.
+	 */
+	public int mask() {
+		return this.mask;
+	}
+
+	/**
+	 * @return an immutable collection with this role as its only authority.
+	 */
+	public List<Role> authorities() {
+		return this.authorities;
+	}
+
+	/**
+	 * @return the name of the role.
+	 */
+	@Override
+	public String getAuthority() {
+		return this.name();
+	}
+
+	/**
+	 * Computes the mask of the given roles.
+	 *
+	 * @param roles the roles.
+	 *
+	 * @return the mask with the bits of all the roles.
+	 */
+	public static int maskOf(Role... roles) {
+		int mask = 0;
+
+		for (Role role : roles) {
+			mask |= role.mask;
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Computes the mask of the roles among the given authorities. The
+	 * authorities that are not roles are looked up by name, and ignored if
+	 * there is no role with that name.
+	 *
+	 * @param authorities the authorities of a user.
+	 *
+	 * @return the mask with the bits of the roles of the user.
+	 */
+	public static int maskOf(Collection<? extends GrantedAuthority> authorities) {
+		int mask = 0;
+
+		for (GrantedAuthority authority : authorities) {
+			if (authority instanceof Role role) {
+				mask |= role.mask;
+			} else {
+				for (Role role : VALUES) {
+					if (role.name().equals(authority.getAuthority())) {
+						mask |= role.mask;
+					}
+				}
+			}
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Finds the role of the given mask.
+	 *
+	 * @param mask the mask with the bit of a single role.
+	 *
+	 * @return the role.
+	 *
+	 * @throws IllegalArgumentException if the mask does not have exactly one known role.
+	 */
+	public static Role fromMask(int mask) {
+		int ordinal = Integer.numberOfTrailingZeros(mask);
+
+		if (Integer.bitCount(mask) != 1 || ordinal >= VALUES.length) {
+			throw new IllegalArgumentException("Invalid role mask: " + mask);
+		}
+
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * Reads the role of the {@code role} claim of a JWT token, which is the mask
+	 * of the role. The tokens issued before the roles were masks have its name.
+	 *
+	 * @param claim the value of the claim.
+	 *
+	 * @return the role.
+	 *
+	 * @throws IllegalArgumentException if the claim is not a known role.
+	 */
+	public static Role fromClaim(Object claim) {
+		if (claim instanceof Number mask) {
+			return fromMask(mask.intValue());
+		}
+
+		if (claim instanceof String name) {
+			return valueOf(name);
+		}
+
+		throw new IllegalArgumentException("Invalid role claim: " + claim);
+	}
+}
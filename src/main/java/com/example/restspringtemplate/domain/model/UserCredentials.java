@@ -0,0 +1,11 @@
+package com.example.restspringtemplate.domain.model;
+
+/**
+ * Projection of a {@link User} with the data needed to authenticate it.
+ *
+ * @param username the username of the user.
+ * @param password the password hash of the user.
+ * @param role     the role of the user.
+ */
+public record UserCredentials(String username, String password, Role role) {
+}
@@ -0,0 +1,11 @@
+package com.example.restspringtemplate.domain.model;
+
+/**
+ * Projection of a {@link User} with the data that can be sent to the clients.
+ *
+ * @param id       the id of the user.
+ * @param username the username of the user.
+ * @param role     the role of the user.
+ */
+public record UserSummary(Long id, String username, Role role) {
+}
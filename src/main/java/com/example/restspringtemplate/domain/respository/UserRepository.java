@@ -1,7 +1,75 @@
 package com.example.restspringtemplate.domain.respository;
 
 import com.example.restspringtemplate.domain.model.User;
+import com.example.restspringtemplate.domain.model.UserCredentials;
+import com.example.restspringtemplate.domain.model.UserSummary;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+	/**
+	 * Finds the credentials of a user through the unique index of the
+	 * username, loading only the columns needed to authenticate it.
+	 *
+	 * @param username the username of the user.
+	 *
+	 * @return the credentials of the user, or empty if there is no user with
+	 * the given username.
+	 */
+	Optional<UserCredentials> findByUsername(String username);
+
+	/**
+	 * Finds the username of a user as it is stored in the database, ignoring
+	 * the changes of the persistence context that have not been flushed yet.
+	 *
+	 * @param id the id of the user.
+	 *
+	 * @return the stored username of the user, or empty if it is not stored.
+	 */
+	@Query("select u.username from User u where u.id = :id")
+	@QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT"))
+	Optional<String> findStoredUsernameById(@Param("id") Long id);
+
+	/**
+	 * Streams the summaries of all the users, reading them from the database as
+	 * the stream is consumed instead of loading the whole table in memory.
+	 * <p>
+	 * The fetch size of {@link Integer#MIN_VALUE} makes the MySQL driver stream
+	 * the rows one by one. The summaries are not entities, so they are not kept
+	 * in the persistence context.
+	 * <p>
+	 * The stream must be consumed inside a transaction, and closed afterwards.
+	 *
+	 * @return a stream of the summaries of all the users.
+	 */
+	@QueryHints({
+		@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+		@QueryHint(name = HINT_CACHEABLE, value = "false"),
+		@QueryHint(name = HINT_READ_ONLY, value = "true")
+	})
+	Stream<UserSummary> streamAllBy();
+
+	/**
+	 * Replaces the password hash of a user, without loading the user.
+	 *
+	 * @param username the username of the user.
+	 * @param password the new password hash.
+	 *
+	 * @return the number of users updated.
+	 */
+	@Modifying
+	@Query("update User u set u.password = :password where u.username = :username")
+	int updatePassword(@Param("username") String username, @Param("password") String password);
 }
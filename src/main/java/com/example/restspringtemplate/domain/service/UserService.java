@@ -1,35 +1,165 @@
 package com.example.restspringtemplate.domain.service;
 
-import lombok.RequiredArgsConstructor;
+import com.example.restspringtemplate.config.properties.UserCacheProperties;
+import com.example.restspringtemplate.domain.model.User;
+import com.example.restspringtemplate.domain.model.UserCredentials;
+import com.example.restspringtemplate.domain.model.UserSummary;
+import com.example.restspringtemplate.domain.respository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Service that manages the users.
+ * <p>
+ * The credentials of the users are kept in a bounded cache for a short time,
+ * so that authenticating them does not need a query each time. The cache
+ * holds immutable projections: a new {@link UserDetails} is built for each
+ * lookup, as Spring Security erases its credentials after authenticating.
+ * The cached users must be evicted whenever they are modified, once the
+ * transaction that modifies them commits: evicting them earlier would let a
+ * concurrent login cache the old row again until the entry expires.
+ */
 @Service
-@RequiredArgsConstructor
 @Transactional
 @Slf4j
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+	private final UserRepository userRepository;
+	private final Cache<String, UserCredentials> credentialsCache;
+
+	public UserService(UserRepository userRepository,
+	                   UserCacheProperties properties,
+	                   MeterRegistry meterRegistry) {
+		this.userRepository = userRepository;
+		this.credentialsCache = Caffeine.newBuilder()
+		                                .maximumSize(properties.getMaximumSize())
+		                                .expireAfterWrite(properties.getTtl())
+		                                .recordStats()
+		                                .build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, this.credentialsCache, "users.credentials");
+	}
+
 	/**
 	 * Gets the user by username to be used by Spring Security.
 	 *
 	 * @param username the username identifying the user whose data is required.
 	 *
 	 * @return the user details.
+	 *
+	 * @throws UsernameNotFoundException if there is no user with the given username.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public UserDetails loadUserByUsername(String username) {
-		// Todo: implement this method
+		// The users that are not found are not cached, so they can not fill the cache.
+		UserCredentials credentials = this.credentialsCache.get(
+			username,
+			key -> this.userRepository.findByUsername(key).orElse(null)
+		);
+
+		if (credentials == null) {
+			throw new UsernameNotFoundException("User " + username + " not found");
+		}
 
 		return new org.springframework.security.core.userdetails.User(
-			"REPLACE_ME_WITH_USERNAME",
-			"REPLACE_ME_WITH_PASSWORD_HASH",
-			List.of(new SimpleGrantedAuthority("REPLACE_ME_WITH_USER_ROLE"))
+			credentials.username(),
+			credentials.password(),
+			credentials.role().authorities()
 		);
 	}
+
+	/**
+	 * Saves the given user, and evicts it from the cache (under its previous and
+	 * its new username) when the transaction commits.
+	 *
+	 * @param user the user to save.
+	 *
+	 * @return the saved user.
+	 */
+	public User save(User user) {
+		String storedUsername = user.getId() != null
+		                        ? this.userRepository.findStoredUsernameById(user.getId()).orElse(null)
+		                        : null;
+
+		User saved = this.userRepository.save(user);
+		this.evictUser(saved.getUsername());
+
+		if (storedUsername != null && !storedUsername.equals(saved.getUsername())) {
+			this.evictUser(storedUsername);
+		}
+
+		return saved;
+	}
+
+	/**
+	 * Removes the user from the cache, so that it is loaded again from the
+	 * database the next time it is needed. It must be called after modifying the
+	 * user without {@link #save(User)}.
+	 * <p>
+	 * Inside a transaction, the user is evicted when it commits (and kept if it
+	 * rolls back), so the old row can not be cached again in the meantime.
+	 *
+	 * @param username the username of the user.
+	 */
+	public void evictUser(String username) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.credentialsCache.invalidate(username);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				UserService.this.credentialsCache.invalidate(username);
+			}
+		});
+	}
+
+	/**
+	 * Stores the password of the user hashed again, when the hash was weaker
+	 * than the configured one (see {@code security.password.rehash}).
+	 *
+	 * @param user        the user whose password has been hashed again.
+	 * @param newPassword the new password hash.
+	 *
+	 * @return the user with the new password hash.
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		this.userRepository.updatePassword(user.getUsername(), newPassword);
+		this.evictUser(user.getUsername());
+		log.info("Password of {} hashed again", user.getUsername());
+
+		return org.springframework.security.core.userdetails.User.withUserDetails(user)
+		                                                        .password(newPassword)
+		                                                        .build();
+	}
+
+	/**
+	 * Streams the summaries of all the users, as they are read from the
+	 * database, so the memory used does not depend on the number of users.
+	 * <p>
+	 * The caller must hold a transaction while the stream is consumed, and
+	 * close the stream afterwards.
+	 *
+	 * @return a stream of the summaries of all the users.
+	 */
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<UserSummary> streamUsers() {
+		return this.userRepository.streamAllBy();
+	}
 }
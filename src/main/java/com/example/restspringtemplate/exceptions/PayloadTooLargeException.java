@@ -0,0 +1,11 @@
+package com.example.restspringtemplate.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.PAYLOAD_TOO_LARGE)
+public class PayloadTooLargeException extends RuntimeException {
+	public PayloadTooLargeException(String message) {
+		super(message);
+	}
+}
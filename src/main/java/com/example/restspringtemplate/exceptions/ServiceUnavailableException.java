@@ -0,0 +1,12 @@
+package com.example.restspringtemplate.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends AuthenticationServiceException {
+	public ServiceUnavailableException(String message) {
+		super(message);
+	}
+}
@@ -2,14 +2,19 @@ package com.example.restspringtemplate.json.modules;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.example.restspringtemplate.json.serializers.GsonValue;
+import com.example.restspringtemplate.json.serializers.GsonValueSerializer;
 import com.example.restspringtemplate.json.serializers.JsonArraySerializer;
+import com.example.restspringtemplate.json.serializers.JsonNullSerializer;
 import com.example.restspringtemplate.json.serializers.JsonObjectSerializer;
 import com.example.restspringtemplate.json.serializers.JsonPrimitiveSerializer;
 
 /**
- * Jackson module to serialize GSON objects.
+ * Jackson module to serialize GSON objects, and the values that must be
+ * serialized as GSON would (see {@link GsonValue}).
  */
 public class GsonModule extends SimpleModule {
 	public GsonModule() {
@@ -18,5 +23,7 @@ public class GsonModule extends SimpleModule {
 		addSerializer(JsonObject.class, new JsonObjectSerializer());
 		addSerializer(JsonPrimitive.class, new JsonPrimitiveSerializer());
 		addSerializer(JsonArray.class, new JsonArraySerializer());
+		addSerializer(JsonNull.class, new JsonNullSerializer());
+		addSerializer(GsonValue.class, new GsonValueSerializer());
 	}
 }
@@ -0,0 +1,141 @@
+package com.example.restspringtemplate.json.parsers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+
+/**
+ * Utility class to build GSON trees with the Jackson streaming parser, reading
+ * the bytes directly instead of decoding them into a {@link String} first.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JsonTreeParser {
+	/**
+	 * Parses a JSON object from the given stream.
+	 * <p>
+	 * UTF-8 (the default encoding of JSON) is read byte by byte by the parser.
+	 * Other charsets are decoded before parsing.
+	 *
+	 * @param in      stream to read the JSON from.
+	 * @param charset charset of the stream.
+	 *
+	 * @return the parsed object, or {@code null} if the stream is empty or
+	 * contains the {@code null} literal.
+	 *
+	 * @throws IOException        if an I/O error occurs or the JSON is malformed.
+	 * @throws JsonParseException if the JSON is not an object.
+	 */
+	public static JsonObject parseObject(InputStream in, Charset charset) throws IOException {
+		JsonParser parser = StandardCharsets.UTF_8.equals(charset)
+		                    ? OBJECT_MAPPER.getFactory().createParser(in)
+		                    : OBJECT_MAPPER.getFactory().createParser(new InputStreamReader(in, charset));
+
+		try (parser) {
+			JsonElement element = parse(parser);
+
+			if (element == null || element.isJsonNull()) {
+				return null;
+			}
+
+			if (!element.isJsonObject()) {
+				throw new JsonParseException("Expected a JSON object but found: " + element);
+			}
+
+			return element.getAsJsonObject();
+		}
+	}
+
+	/**
+	 * Parses the next JSON value of the parser. The whole input must be
+	 * consumed by the value.
+	 * <p>
+	 * The tree is built iteratively, so that deeply nested documents do not
+	 * overflow the stack.
+	 *
+	 * @param parser parser to read the tokens from.
+	 *
+	 * @return the parsed value, or {@code null} if there is no input.
+	 *
+	 * @throws IOException if an I/O error occurs or the JSON is malformed.
+	 */
+	public static JsonElement parse(JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken();
+
+		if (token == null) {
+			return null;
+		}
+
+		Deque<JsonElement> containers = new ArrayDeque<>();
+		JsonElement root = null;
+
+		while (root == null) {
+			if (token == null) {
+				throw new JsonParseException("Unexpected end of JSON input");
+			}
+
+			JsonElement value = switch (token) {
+				case START_OBJECT -> new JsonObject();
+				case START_ARRAY -> new JsonArray();
+				case VALUE_STRING -> new JsonPrimitive(parser.getText());
+				case VALUE_NUMBER_INT -> new JsonPrimitive(parser.getNumberValue());
+				case VALUE_NUMBER_FLOAT -> new JsonPrimitive(parser.getDecimalValue()); // Exact value
+				case VALUE_TRUE -> new JsonPrimitive(true);
+				case VALUE_FALSE -> new JsonPrimitive(false);
+				case VALUE_NULL -> JsonNull.INSTANCE;
+				case END_OBJECT, END_ARRAY -> {
+					JsonElement container = containers.pop();
+
+					if (containers.isEmpty()) {
+						root = container;
+					}
+
+					yield null;
+				}
+				default -> null; // Field names are read along with their values
+			};
+
+			if (value != null) {
+				if (containers.isEmpty()) {
+					if (!value.isJsonObject() && !value.isJsonArray()) {
+						root = value;
+					}
+				} else if (containers.peek() instanceof JsonObject object) {
+					object.add(parser.currentName(), value);
+				} else {
+					containers.peek().getAsJsonArray().add(value);
+				}
+
+				if (value.isJsonObject() || value.isJsonArray()) {
+					containers.push(value);
+				}
+			}
+
+			if (root == null) {
+				token = parser.nextToken();
+			}
+		}
+
+		if (parser.nextToken() != null) {
+			throw new JsonParseException("Unexpected content after the JSON value");
+		}
+
+		return root;
+	}
+}
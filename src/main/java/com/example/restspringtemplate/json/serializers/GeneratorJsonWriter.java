@@ -0,0 +1,209 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+
+/**
+ * GSON writer that forwards everything it is given to a Jackson generator, so
+ * that the type adapters of GSON can write their values in any of the formats
+ * of Jackson, without building a GSON tree first.
+ * <p>
+ * As the GSON writers do, the names of the fields whose value is {@code null}
+ * are dropped unless the nulls must be serialized.
+ * <p>
+ * Raw JSON values ({@link #jsonValue(String)}) are written verbatim to the
+ * JSON generators. The binary formats cannot embed JSON text, so the value is
+ * parsed and its tokens are copied to them instead.
+ */
+final class GeneratorJsonWriter extends JsonWriter {
+	private static final Writer UNWRITABLE_WRITER = new Writer() {
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void flush() {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void close() {
+			throw new AssertionError();
+		}
+	};
+
+	private final JsonGenerator gen;
+
+	/**
+	 * Name of the field whose value has not been written yet.
+	 */
+	private String deferredName;
+
+	GeneratorJsonWriter(JsonGenerator gen) {
+		super(UNWRITABLE_WRITER);
+		this.gen = gen;
+	}
+
+	@Override
+	public JsonWriter beginArray() throws IOException {
+		this.writeDeferredName();
+		this.gen.writeStartArray();
+		return this;
+	}
+
+	@Override
+	public JsonWriter endArray() throws IOException {
+		this.gen.writeEndArray();
+		return this;
+	}
+
+	@Override
+	public JsonWriter beginObject() throws IOException {
+		this.writeDeferredName();
+		this.gen.writeStartObject();
+		return this;
+	}
+
+	@Override
+	public JsonWriter endObject() throws IOException {
+		this.gen.writeEndObject();
+		return this;
+	}
+
+	@Override
+	public JsonWriter name(String name) {
+		Objects.requireNonNull(name, "name == null");
+
+		if (this.deferredName != null) {
+			throw new IllegalStateException("Expected a value for " + this.deferredName);
+		}
+
+		this.deferredName = name;
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(String value) throws IOException {
+		if (value == null) {
+			return this.nullValue();
+		}
+
+		this.writeDeferredName();
+		this.gen.writeString(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter jsonValue(String value) throws IOException {
+		if (value == null) {
+			return this.nullValue();
+		}
+
+		if (!this.gen.canWriteBinaryNatively()) {
+			this.writeDeferredName();
+			this.gen.writeRawValue(value);
+			return this;
+		}
+
+		try (JsonParser parser = OBJECT_MAPPER.createParser(value)) {
+			if (parser.nextToken() == null) {
+				throw new IOException("Empty JSON value");
+			}
+
+			this.writeDeferredName();
+			this.gen.copyCurrentStructure(parser);
+
+			if (parser.nextToken() != null) {
+				throw new IOException("Unexpected content after the JSON value: " + parser.currentToken());
+			}
+		}
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter nullValue() throws IOException {
+		if (this.deferredName != null && !this.getSerializeNulls()) {
+			// The field is omitted.
+			this.deferredName = null;
+			return this;
+		}
+
+		this.writeDeferredName();
+		this.gen.writeNull();
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(boolean value) throws IOException {
+		this.writeDeferredName();
+		this.gen.writeBoolean(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Boolean value) throws IOException {
+		if (value == null) {
+			return this.nullValue();
+		}
+
+		return this.value(value.booleanValue());
+	}
+
+	@Override
+	public JsonWriter value(float value) throws IOException {
+		this.writeDeferredName();
+		this.gen.writeNumber(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(double value) throws IOException {
+		this.writeDeferredName();
+		this.gen.writeNumber(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(long value) throws IOException {
+		this.writeDeferredName();
+		this.gen.writeNumber(value);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Number value) throws IOException {
+		if (value == null) {
+			return this.nullValue();
+		}
+
+		this.writeDeferredName();
+		JsonTraverser.writeNumber(value, this.gen);
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.gen.flush();
+	}
+
+	@Override
+	public void close() {
+		// The generator is closed by its owner.
+	}
+
+	private void writeDeferredName() throws IOException {
+		if (this.deferredName != null) {
+			this.gen.writeFieldName(this.deferredName);
+			this.deferredName = null;
+		}
+	}
+}
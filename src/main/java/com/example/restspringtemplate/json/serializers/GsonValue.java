@@ -0,0 +1,38 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+
+/**
+ * Value that is serialized by Jackson in the same way as GSON would serialize
+ * it: by its fields (not its getters), skipping the transient ones and the
+ * ones whose value is {@code null}, and with the type adapters of GSON.
+ * <p>
+ * The value is written directly to the Jackson generator, without building a
+ * GSON tree first (see {@link GsonValueSerializer}).
+ *
+ * @param value the value to be serialized.
+ */
+public record GsonValue(Object value) {
+	/**
+	 * Prepares the given value to be serialized with GSON semantics. GSON
+	 * elements are returned as they are (they are serialized by the
+	 * {@link com.example.restspringtemplate.json.modules.GsonModule}), and
+	 * {@code null} as {@link JsonNull}.
+	 *
+	 * @param value the value to be serialized.
+	 *
+	 * @return the value to pass to Jackson.
+	 */
+	public static Object of(Object value) {
+		if (value == null) {
+			return JsonNull.INSTANCE;
+		}
+
+		if (value instanceof JsonElement || value instanceof GsonValue) {
+			return value;
+		}
+
+		return new GsonValue(value);
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.google.gson.JsonIOException;
+
+import java.io.IOException;
+
+import static com.example.restspringtemplate.utils.Constants.GSON;
+
+/**
+ * Serializer for {@link GsonValue}, which writes the value with the type
+ * adapters of GSON directly to the Jackson generator.
+ */
+public class GsonValueSerializer extends JsonSerializer<GsonValue> {
+	@Override
+	public void serialize(GsonValue value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		Object content = value.value();
+
+		try {
+			GSON.toJson(content, content.getClass(), new GeneratorJsonWriter(gen));
+		} catch (JsonIOException e) {
+			if (e.getCause() instanceof IOException cause) {
+				throw cause;
+			}
+
+			throw e;
+		}
+	}
+}
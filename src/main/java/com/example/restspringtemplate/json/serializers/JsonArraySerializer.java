@@ -13,8 +13,6 @@ import java.io.IOException;
 public class JsonArraySerializer extends JsonSerializer<JsonArray> {
 	@Override
 	public void serialize(JsonArray value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-		gen.writeStartArray();
-		JsonTraverser.traverseJsonArray(value, gen);
-		gen.writeEndArray();
+		JsonTraverser.traverseElement(value, gen);
 	}
 }
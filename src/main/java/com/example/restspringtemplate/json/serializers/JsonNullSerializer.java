@@ -0,0 +1,18 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.google.gson.JsonNull;
+
+import java.io.IOException;
+
+/**
+ * Serializer for {@link JsonNull}.
+ */
+public class JsonNullSerializer extends JsonSerializer<JsonNull> {
+	@Override
+	public void serialize(JsonNull value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		gen.writeNull();
+	}
+}
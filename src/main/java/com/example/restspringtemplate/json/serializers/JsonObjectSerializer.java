@@ -13,8 +13,6 @@ import java.io.IOException;
 public class JsonObjectSerializer extends JsonSerializer<JsonObject> {
 	@Override
 	public void serialize(JsonObject value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-		gen.writeStartObject();
-		JsonTraverser.traverseJsonObject(value, gen);
-		gen.writeEndObject();
+		JsonTraverser.traverseElement(value, gen);
 	}
 }
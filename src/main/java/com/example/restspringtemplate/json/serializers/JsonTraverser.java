@@ -4,66 +4,160 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
  * Utility class to traverse a GSON object and write it to a Jackson generator.
+ * <p>
+ * The tree is walked iteratively, with an explicit stack, so that deeply nested
+ * documents do not overflow the call stack. Primitives are written directly to
+ * the generator, without looking up their serializer.
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class JsonTraverser {
 	/**
-	 * Traverse a GSON object and write it to a Jackson generator.
+	 * Traverse a GSON element and write it to a Jackson generator.
 	 *
-	 * @param object GSON object to traverse and write.
-	 * @param gen    Jackson generator to write to.
+	 * @param element GSON element to traverse and write.
+	 * @param gen     Jackson generator to write to.
 	 *
 	 * @throws IOException if an I/O error occurs.
 	 */
-	static void traverseJsonObject(JsonObject object, JsonGenerator gen) throws IOException {
-		for (var entry : object.entrySet()) {
-			gen.writeFieldName(entry.getKey());
-			traverseElement(entry.getValue(), gen);
+	static void traverseElement(JsonElement element, JsonGenerator gen) throws IOException {
+		if (!isContainer(element)) {
+			writeScalar(element, gen);
+			return;
+		}
+
+		Deque<Frame> stack = new ArrayDeque<>();
+		stack.push(open(element, gen));
+
+		while (!stack.isEmpty()) {
+			Frame frame = stack.peek();
+			JsonElement value;
+
+			if (frame.fields != null && frame.fields.hasNext()) {
+				Map.Entry<String, JsonElement> field = frame.fields.next();
+				gen.writeFieldName(field.getKey());
+				value = field.getValue();
+			} else if (frame.elements != null && frame.elements.hasNext()) {
+				value = frame.elements.next();
+			} else {
+				// All the children have been written, so the container is closed.
+				stack.pop();
+
+				if (frame.fields != null) {
+					gen.writeEndObject();
+				} else {
+					gen.writeEndArray();
+				}
+
+				continue;
+			}
+
+			if (isContainer(value)) {
+				stack.push(open(value, gen));
+			} else {
+				writeScalar(value, gen);
+			}
 		}
 	}
 
 	/**
-	 * Traverse a GSON array and write it to a Jackson generator.
+	 * Write a GSON primitive to a Jackson generator.
+	 * <p>
+	 * Numbers are written without losing precision: the ones whose type is not
+	 * known (such as the lazily parsed numbers created by GSON) are written with
+	 * their textual representation.
 	 *
-	 * @param array GSON array to traverse and write.
-	 * @param gen   Jackson generator to write to.
+	 * @param primitive GSON primitive to write.
+	 * @param gen       Jackson generator to write to.
 	 *
 	 * @throws IOException if an I/O error occurs.
 	 */
-	static void traverseJsonArray(JsonArray array, JsonGenerator gen) throws IOException {
-		for (JsonElement element : array) {
-			traverseElement(element, gen);
+	static void writePrimitive(JsonPrimitive primitive, JsonGenerator gen) throws IOException {
+		if (primitive.isBoolean()) {
+			gen.writeBoolean(primitive.getAsBoolean());
+		} else if (primitive.isString()) {
+			gen.writeString(primitive.getAsString());
+		} else {
+			writeNumber(primitive.getAsNumber(), gen);
 		}
 	}
 
 	/**
-	 * Traverse a GSON element and write it to a Jackson generator.
+	 * Write a number to a Jackson generator, without losing precision (see
+	 * {@link #writePrimitive(JsonPrimitive, JsonGenerator)}).
 	 *
-	 * @param element GSON element to traverse and write.
-	 * @param gen     Jackson generator to write to.
+	 * @param number number to write.
+	 * @param gen    Jackson generator to write to.
 	 *
 	 * @throws IOException if an I/O error occurs.
 	 */
-	static void traverseElement(JsonElement element, JsonGenerator gen) throws IOException {
-		if (element.isJsonPrimitive()) {
-			gen.writeObject(element.getAsJsonPrimitive()); // This will call the JsonPrimitiveSerializer
-		} else if (element.isJsonObject()) {
+	static void writeNumber(Number number, JsonGenerator gen) throws IOException {
+		if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+			gen.writeNumber(number.intValue());
+		} else if (number instanceof Long) {
+			gen.writeNumber(number.longValue());
+		} else if (number instanceof Double) {
+			gen.writeNumber(number.doubleValue());
+		} else if (number instanceof Float) {
+			gen.writeNumber(number.floatValue());
+		} else if (number instanceof BigInteger num) {
+			gen.writeNumber(num);
+		} else if (number instanceof BigDecimal num) {
+			gen.writeNumber(num);
+		} else if (gen.canWriteFormattedNumbers()) {
+			// Can be a LazilyParsedNumber or something else: the text is
+			// already a valid number, so it is written as is.
+			gen.writeNumber(number.toString());
+		} else {
+			gen.writeNumber(new BigDecimal(number.toString()));
+		}
+	}
+
+	/**
+	 * Writes the start of the given container and returns the frame that
+	 * iterates over its children.
+	 */
+	private static Frame open(JsonElement container, JsonGenerator gen) throws IOException {
+		if (container.isJsonObject()) {
+			JsonObject object = container.getAsJsonObject();
 			gen.writeStartObject();
-			traverseJsonObject(element.getAsJsonObject(), gen); // This will call the JsonObjectSerializer
-			gen.writeEndObject();
-		} else if (element.isJsonArray()) {
-			gen.writeStartArray();
-			traverseJsonArray(element.getAsJsonArray(), gen); // This will call the JsonArraySerializer
-			gen.writeEndArray();
-		} else if (element.isJsonNull()) {
+			return new Frame(object.entrySet().iterator(), null);
+		}
+
+		JsonArray array = container.getAsJsonArray();
+		gen.writeStartArray();
+		return new Frame(null, array.iterator());
+	}
+
+	private static void writeScalar(JsonElement element, JsonGenerator gen) throws IOException {
+		if (element.isJsonPrimitive()) {
+			writePrimitive(element.getAsJsonPrimitive(), gen);
+		} else {
 			gen.writeNull();
 		}
 	}
+
+	private static boolean isContainer(JsonElement element) {
+		return element.isJsonObject() || element.isJsonArray();
+	}
+
+	/**
+	 * Object or array whose children are being written. Only one of the
+	 * iterators is set, depending on the type of the container.
+	 */
+	private record Frame(Iterator<Map.Entry<String, JsonElement>> fields, Iterator<JsonElement> elements) {
+	}
 }
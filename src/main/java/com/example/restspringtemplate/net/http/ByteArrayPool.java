@@ -0,0 +1,87 @@
+package com.example.restspringtemplate.net.http;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded pool of fixed-size byte arrays. The arrays are kept in a set of
+ * slots that are accessed without locks: each thread starts probing at a slot
+ * derived from its id, so that concurrent threads rarely compete for the same
+ * slot.
+ * <p>
+ * When the pool is empty a new array is allocated, and when it is full the
+ * released array is simply left to the garbage collector.
+ */
+public final class ByteArrayPool {
+	private final int bufferSize;
+	private final AtomicReferenceArray<byte[]> slots;
+
+	/**
+	 * Constructs a new pool.
+	 *
+	 * @param bufferSize size of each of the arrays of the pool.
+	 * @param capacity   maximum number of arrays kept in the pool.
+	 */
+	public ByteArrayPool(int bufferSize, int capacity) {
+		this.bufferSize = bufferSize;
+		this.slots = new AtomicReferenceArray<>(capacity);
+	}
+
+	/**
+	 * @return the size of the arrays handed out by this pool.
+	 */
+	public int bufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * Takes an array from the pool, or allocates a new one if the pool is empty.
+	 * The contents of the returned array are undefined.
+	 *
+	 * @return an array of {@link #bufferSize()} bytes.
+	 */
+	public byte[] acquire() {
+		int capacity = this.slots.length();
+		int start = this.startIndex();
+
+		for (int i = 0; i < capacity; i++) {
+			int index = (start + i) % capacity;
+			byte[] buffer = this.slots.get(index);
+
+			if (buffer != null && this.slots.compareAndSet(index, buffer, null)) {
+				return buffer;
+			}
+		}
+
+		return new byte[this.bufferSize];
+	}
+
+	/**
+	 * Returns an array to the pool. Arrays that were not created by this pool
+	 * are ignored.
+	 *
+	 * @param buffer the array to return.
+	 */
+	public void release(byte[] buffer) {
+		if (buffer == null || buffer.length != this.bufferSize) {
+			return;
+		}
+
+		int capacity = this.slots.length();
+		int start = this.startIndex();
+
+		for (int i = 0; i < capacity; i++) {
+			int index = (start + i) % capacity;
+
+			if (this.slots.get(index) == null && this.slots.compareAndSet(index, null, buffer)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the slot where the current thread starts probing.
+	 */
+	private int startIndex() {
+		return (int) ((Thread.currentThread().getId() & Integer.MAX_VALUE) % this.slots.length());
+	}
+}
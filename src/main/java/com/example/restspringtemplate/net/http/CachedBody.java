@@ -0,0 +1,280 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.exceptions.PayloadTooLargeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.example.restspringtemplate.utils.Constants.BODY_BUFFER_POOL_SIZE;
+import static com.example.restspringtemplate.utils.Constants.BODY_BUFFER_SIZE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Body of a request, read once from the client and kept so that it can be
+ * read multiple times.
+ * <p>
+ * Small bodies are stored in memory, in arrays taken from a shared
+ * {@link ByteArrayPool}. Bodies larger than the spill threshold are written to
+ * a temporary file, which is then memory-mapped, so that they are served from
+ * the page cache instead of the heap. In both cases, the resources must be
+ * given back with {@link #release()} once the request has been handled.
+ */
+@Slf4j
+final class CachedBody {
+	/**
+	 * Pool shared by all the requests of the application.
+	 */
+	static final ByteArrayPool POOL = new ByteArrayPool(BODY_BUFFER_SIZE, BODY_BUFFER_POOL_SIZE);
+
+	/**
+	 * Body of the requests that have no content.
+	 */
+	static final CachedBody EMPTY = new CachedBody(new byte[0], 0, false);
+
+	/**
+	 * Largest array (or mapped region) that can be safely allocated in most JVMs.
+	 */
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private byte[] buffer;
+	private final int length;
+	private final boolean pooled;
+	private final Path file;
+	private final ByteBuffer mapped;
+
+	private CachedBody(byte[] buffer, int length, boolean pooled) {
+		this.buffer = buffer;
+		this.length = length;
+		this.pooled = pooled;
+		this.file = null;
+		this.mapped = null;
+	}
+
+	private CachedBody(Path file, ByteBuffer mapped) {
+		this.buffer = null;
+		this.length = mapped.limit();
+		this.pooled = false;
+		this.file = file;
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Reads the whole input stream, failing as soon as more than
+	 * {@code maxSize} bytes have been received.
+	 *
+	 * @param in             stream to read the body from.
+	 * @param contentLength  declared length of the body, or {@code -1} if it is unknown.
+	 * @param maxSize        maximum number of bytes allowed for the body.
+	 * @param spillThreshold number of bytes above which the body is moved to a temporary file.
+	 *
+	 * @return the body that has been read.
+	 *
+	 * @throws IOException              if an I/O error occurs.
+	 * @throws PayloadTooLargeException if the body is larger than {@code maxSize}.
+	 */
+	static CachedBody read(InputStream in, long contentLength, long maxSize, long spillThreshold) throws IOException {
+		if (contentLength > maxSize) {
+			throw tooLarge(maxSize);
+		}
+
+		maxSize = Math.min(maxSize, MAX_ARRAY_SIZE);
+
+		if (contentLength > spillThreshold) {
+			return spill(in, new byte[0], 0, -1, maxSize);
+		}
+
+		// Bodies that do not fit in a pooled array and whose size is known
+		// are read directly into an array of the exact size.
+		boolean pooled = contentLength <= POOL.bufferSize();
+		byte[] buffer = pooled ? POOL.acquire() : new byte[(int) contentLength];
+		int length = 0;
+
+		try {
+			while (true) {
+				if (length == buffer.length) {
+					// The buffer is full: probe for one more byte before growing it,
+					// so that bodies of the declared size are never copied.
+					int next = in.read();
+
+					if (next == -1) {
+						break;
+					}
+
+					if (length + 1L > maxSize) {
+						throw tooLarge(maxSize);
+					}
+
+					if (length + 1L > spillThreshold) {
+						return spillBuffer(in, buffer, length, next, maxSize, pooled);
+					}
+
+					// The heap array never grows beyond the spill threshold.
+					long limit = Math.min(maxSize, spillThreshold);
+					int newLength = (int) Math.min(Math.max(buffer.length * 2L, BODY_BUFFER_SIZE), limit);
+					byte[] grown = Arrays.copyOf(buffer, newLength);
+
+					if (pooled) {
+						POOL.release(buffer);
+						pooled = false;
+					}
+
+					buffer = grown;
+					buffer[length++] = (byte) next;
+				}
+
+				int read = in.read(buffer, length, buffer.length - length);
+
+				if (read == -1) {
+					break;
+				}
+
+				length += read;
+
+				// The pooled array may be larger than the maximum size and
+				// the spill threshold.
+				if (length > maxSize) {
+					throw tooLarge(maxSize);
+				}
+
+				if (length > spillThreshold) {
+					return spillBuffer(in, buffer, length, -1, maxSize, pooled);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			if (pooled) {
+				POOL.release(buffer);
+			}
+
+			throw e;
+		}
+
+		return new CachedBody(buffer, length, pooled);
+	}
+
+	/**
+	 * Moves the body to a temporary file: writes the bytes that have already
+	 * been read, followed by the rest of the stream, and maps the file in memory.
+	 *
+	 * @param in         stream to read the rest of the body from.
+	 * @param head       bytes of the body that have already been read.
+	 * @param headLength number of bytes of {@code head} that belong to the body.
+	 * @param next       byte read after {@code head}, or {@code -1} if there is none.
+	 * @param maxSize    maximum number of bytes allowed for the body.
+	 *
+	 * @return the body backed by the temporary file.
+	 *
+	 * @throws IOException              if an I/O error occurs.
+	 * @throws PayloadTooLargeException if the body is larger than {@code maxSize}.
+	 */
+	private static CachedBody spill(InputStream in, byte[] head, int headLength, int next, long maxSize) throws IOException {
+		Path file = Files.createTempFile("request-body-", ".tmp");
+		byte[] chunk = POOL.acquire();
+
+		try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+			long length = headLength;
+			writeFully(channel, ByteBuffer.wrap(head, 0, headLength));
+
+			if (next != -1) {
+				length++;
+				writeFully(channel, ByteBuffer.wrap(new byte[] {(byte) next}));
+			}
+
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				length += read;
+
+				if (length > maxSize) {
+					throw tooLarge(maxSize);
+				}
+
+				writeFully(channel, ByteBuffer.wrap(chunk, 0, read));
+			}
+
+			// The mapping remains valid after the channel is closed.
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			return new CachedBody(file, mapped);
+		} catch (IOException | RuntimeException e) {
+			deleteFile(file);
+			throw e;
+		} finally {
+			POOL.release(chunk);
+		}
+	}
+
+	/**
+	 * Moves the body to a temporary file, and then gives back the array that
+	 * held its first bytes if it was taken from the pool.
+	 *
+	 * @see #spill(InputStream, byte[], int, int, long)
+	 */
+	private static CachedBody spillBuffer(InputStream in, byte[] buffer, int length, int next, long maxSize, boolean pooled) throws IOException {
+		CachedBody body = spill(in, buffer, length, next, maxSize);
+
+		if (pooled) {
+			POOL.release(buffer);
+		}
+
+		return body;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+		while (source.hasRemaining()) {
+			channel.write(source);
+		}
+	}
+
+	/**
+	 * @return a new read-only view of the body, positioned at its first byte.
+	 */
+	ByteBuffer content() {
+		if (this.mapped != null) {
+			return this.mapped.asReadOnlyBuffer();
+		}
+
+		return ByteBuffer.wrap(this.buffer, 0, this.length).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return the number of bytes of the body.
+	 */
+	int length() {
+		return this.length;
+	}
+
+	/**
+	 * Gives back the resources used to hold the body: returns the array to the
+	 * pool (if it was taken from it) or deletes the temporary file. The body
+	 * must not be read after calling this method.
+	 */
+	void release() {
+		if (this.pooled && this.buffer != null) {
+			POOL.release(this.buffer);
+			this.buffer = null;
+		}
+
+		if (this.file != null) {
+			deleteFile(this.file);
+		}
+	}
+
+	private static void deleteFile(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// Some platforms do not allow deleting files that are still mapped.
+			log.warn("Could not delete temporary request body {}", file, e);
+			file.toFile().deleteOnExit();
+		}
+	}
+
+	private static PayloadTooLargeException tooLarge(long maxSize) {
+		return new PayloadTooLargeException("The request body must not exceed " + maxSize + " bytes.");
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.restspringtemplate.net.http;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.util.zip.CRC32C;
+
+/**
+ * Utilities to build and compare the entity tags of the responses
+ * ({@code ETag} and {@code If-None-Match} headers).
+ * <p>
+ * The tags are handled without quotes (the opaque value). The same resource
+ * compressed with different encodings has different bytes, so the encoding
+ * is appended to the tag when the response is compressed; the comparison
+ * ignores it, as all the encodings represent the same version of the resource.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class EntityTag {
+	/**
+	 * Computes a strong tag of the given content, with a fast non-cryptographic
+	 * checksum (CRC-32C) combined with the length of the content.
+	 *
+	 * @param content the serialized body.
+	 * @param length  the number of bytes of the body.
+	 *
+	 * @return the opaque value of the tag.
+	 */
+	static String of(byte[] content, int length) {
+		CRC32C checksum = new CRC32C();
+		checksum.update(content, 0, length);
+		return Integer.toHexString(length) + '-' + Long.toHexString(checksum.getValue());
+	}
+
+	/**
+	 * Checks that a version supplied by the application can be used as the
+	 * opaque value of a tag.
+	 *
+	 * @param version the version of the resource.
+	 *
+	 * @return the given version.
+	 *
+	 * @throws IllegalArgumentException if the version is empty or contains
+	 *                                  characters that are not allowed in a tag.
+	 */
+	static String validate(String version) {
+		if (!StringUtils.hasLength(version)) {
+			throw new IllegalArgumentException("The ETag must not be empty");
+		}
+
+		for (int i = 0; i < version.length(); i++) {
+			char c = version.charAt(i);
+
+			if (c == '"' || c <= 0x20 || c == 0x7f) {
+				throw new IllegalArgumentException("Invalid character in ETag: " + version);
+			}
+		}
+
+		return version;
+	}
+
+	/**
+	 * Builds the value of the {@code ETag} header.
+	 *
+	 * @param tag      the opaque value of the tag.
+	 * @param encoding the encoding of the response, or {@code null} if it is not compressed.
+	 *
+	 * @return the quoted tag.
+	 */
+	static String format(String tag, ResponseCompression.Encoding encoding) {
+		return encoding == null ? '"' + tag + '"' : '"' + tag + '-' + encoding.token() + '"';
+	}
+
+	/**
+	 * Checks if the given tag is listed in an {@code If-None-Match} header,
+	 * using the weak comparison (as required for this header).
+	 *
+	 * @param ifNoneMatch the value of the header, or {@code null} if it is not present.
+	 * @param tag         the opaque value of the current tag.
+	 *
+	 * @return {@code true} if the client already has the current version of the
+	 * resource, {@code false} otherwise.
+	 */
+	static boolean matches(String ifNoneMatch, String tag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+
+			if (value.equals("*")) {
+				return true;
+			}
+
+			if (value.startsWith("W/")) {
+				value = value.substring(2);
+			}
+
+			if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+				continue;
+			}
+
+			value = value.substring(1, value.length() - 1);
+
+			if (value.equals(tag) || matchesEncoded(value, tag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean matchesEncoded(String value, String tag) {
+		if (value.length() <= tag.length() + 1 || !value.startsWith(tag) || value.charAt(tag.length()) != '-') {
+			return false;
+		}
+
+		String suffix = value.substring(tag.length() + 1);
+
+		for (ResponseCompression.Encoding encoding : ResponseCompression.Encoding.values()) {
+			if (encoding.token().equals(suffix)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -1,71 +1,217 @@
 package com.example.restspringtemplate.net.http;
 
+import com.example.restspringtemplate.exceptions.PayloadTooLargeException;
+import com.example.restspringtemplate.json.parsers.JsonTreeParser;
+import com.example.restspringtemplate.utils.Constants;
 import com.google.gson.JsonObject;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import org.apache.commons.io.IOUtils;
-import org.springframework.util.StreamUtils;
+import org.springframework.web.util.WebUtils;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
-import static com.example.restspringtemplate.utils.Constants.GSON;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_BODY_SPILL_THRESHOLD;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_MAX_BODY_SIZE;
 
 /**
  * Class that wraps an {@link HttpServletRequest} and provides methods to
  * read multiple times the body of the request as a {@link JsonObject}.
  * Also, it provides a way to store data in the request, which can be retrieved
  * later.
+ * <p>
+ * The body is only read from the wrapped request the first time it is needed,
+ * and it is only parsed the first time {@link #body()} is called. Its size is
+ * limited, and large bodies are kept in a memory-mapped temporary file instead
+ * of the heap. The resources used to hold the body must be given back by
+ * calling {@link #release()} once the request has been handled.
  */
 public class HttpRequest extends HttpServletRequestWrapper {
-	private final byte[] cachedBody;
+	/**
+	 * HTTP methods whose requests are not expected to carry a body.
+	 */
+	private static final Set<String> BODYLESS_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+	/**
+	 * Attribute that holds the wrapper of the requests that were not wrapped by
+	 * the first filter of the chain.
+	 */
+	private static final String ATTRIBUTE_NAME = HttpRequest.class.getName();
+
 	private final Map<String, Object> data = new HashMap<>();
-	private final JsonObject parsedBody;
+	private final long maxBodySize;
+	private final long spillThreshold;
+	private CachedBody cachedBody;
+	private JsonObject parsedBody;
+	private boolean bodyParsed;
 
 	/**
-	 * Constructs a request object wrapping the given request.
+	 * Constructs a request object wrapping the given request, whose body can
+	 * have up to {@link Constants#DEFAULT_MAX_BODY_SIZE} bytes and is kept in a
+	 * temporary file when it is larger than
+	 * {@link Constants#DEFAULT_BODY_SPILL_THRESHOLD} bytes.
 	 *
 	 * @param request the request to wrap.
 	 *
 	 * @throws IllegalArgumentException if the request is null.
 	 */
-	public HttpRequest(HttpServletRequest request) throws IOException {
+	public HttpRequest(HttpServletRequest request) {
+		this(request, DEFAULT_MAX_BODY_SIZE, DEFAULT_BODY_SPILL_THRESHOLD);
+	}
+
+	/**
+	 * Constructs a request object wrapping the given request.
+	 *
+	 * @param request        the request to wrap.
+	 * @param maxBodySize    maximum number of bytes allowed for the body of the request.
+	 * @param spillThreshold number of bytes above which the body is kept in a temporary file.
+	 *
+	 * @throws IllegalArgumentException if the request is null.
+	 */
+	public HttpRequest(HttpServletRequest request, long maxBodySize, long spillThreshold) {
 		super(request);
-		this.cachedBody = StreamUtils.copyToByteArray(request.getInputStream());
-		this.parsedBody = GSON.fromJson(IOUtils.toString(this.getReader()), JsonObject.class);
+		this.maxBodySize = maxBodySize;
+		this.spillThreshold = spillThreshold;
+
+		if (BODYLESS_METHODS.contains(request.getMethod()) || request.getContentLengthLong() == 0) {
+			this.cachedBody = CachedBody.EMPTY;
+		}
+	}
+
+	/**
+	 * Finds the {@link HttpRequest} that wraps the given request, so that the body
+	 * is read and parsed only once per request, no matter how many filters or
+	 * controllers need it.
+	 * <p>
+	 * The request is usually wrapped by the first filter of the chain, so the
+	 * existing wrapper is returned. Otherwise, a new one is created and stored
+	 * as an attribute of the request to be found by the next callers. As it will
+	 * not be released by the filter, it keeps the body in memory.
+	 *
+	 * @param request the request, which may be (or wrap) an {@link HttpRequest}.
+	 *
+	 * @return the {@link HttpRequest} of the given request.
+	 */
+	public static HttpRequest from(HttpServletRequest request) {
+		HttpRequest httpRequest = WebUtils.getNativeRequest(request, HttpRequest.class);
+
+		if (httpRequest != null) {
+			return httpRequest;
+		}
+
+		httpRequest = (HttpRequest) request.getAttribute(ATTRIBUTE_NAME);
+
+		if (httpRequest == null) {
+			httpRequest = new HttpRequest(request, DEFAULT_MAX_BODY_SIZE, Long.MAX_VALUE);
+			request.setAttribute(ATTRIBUTE_NAME, httpRequest);
+		}
+
+		return httpRequest;
 	}
 
 	/**
 	 * @return the cached body as a {@link CachedBodyServletInputStream}.
+	 *
+	 * @throws IOException if the body could not be read from the wrapped request.
 	 */
 	@Override
-	public ServletInputStream getInputStream() {
-		return new CachedBodyServletInputStream(this.cachedBody);
+	public ServletInputStream getInputStream() throws IOException {
+		return new CachedBodyServletInputStream(this.cachedBody().content());
 	}
 
 	/**
-	 * @return a new {@link BufferedReader} for the cached body byte array.
+	 * @return a new {@link BufferedReader} for the cached body, which decodes it
+	 * with the charset of the request.
+	 *
+	 * @throws IOException if the body could not be read from the wrapped request.
 	 */
 	@Override
-	public BufferedReader getReader() {
-		ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody);
-		return new BufferedReader(new InputStreamReader(byteArrayInputStream));
+	public BufferedReader getReader() throws IOException {
+		return new BufferedReader(new InputStreamReader(this.getInputStream(), this.charset()));
 	}
 
 	/**
-	 * @return the body of the request as a {@link JsonObject}.
+	 * Parses the body the first time it is called. Subsequent calls return the
+	 * same {@link JsonObject} instance.
+	 * <p>
+	 * The body is parsed directly from its bytes, without decoding it into a
+	 * {@link String} first.
+	 *
+	 * @return the body of the request as a {@link JsonObject}, or {@code null}
+	 * if the request has no body.
+	 *
+	 * @throws IOException                         if the body could not be read from the wrapped
+	 *                                             request or it is not valid JSON.
+	 * @throws com.google.gson.JsonParseException if the body is not a JSON object.
 	 */
-	public JsonObject body() {
+	public JsonObject body() throws IOException {
+		if (!this.bodyParsed) {
+			this.parsedBody = JsonTreeParser.parseObject(this.getInputStream(), this.charset());
+			this.bodyParsed = true;
+		}
+
 		return this.parsedBody;
 	}
 
+	/**
+	 * @return the charset declared by the request, or UTF-8 (the default
+	 * encoding of JSON) if there is none.
+	 *
+	 * @throws UnsupportedEncodingException if the declared charset is not supported.
+	 */
+	private Charset charset() throws UnsupportedEncodingException {
+		String encoding = this.getCharacterEncoding();
+
+		if (encoding == null) {
+			return StandardCharsets.UTF_8;
+		}
+
+		try {
+			return Charset.forName(encoding);
+		} catch (IllegalArgumentException e) {
+			throw new UnsupportedEncodingException(encoding);
+		}
+	}
+
+	/**
+	 * Releases the memory (or the temporary file) used to hold the body of the
+	 * request. The body must not be read after calling this method.
+	 */
+	public void release() {
+		if (this.cachedBody != null) {
+			this.cachedBody.release();
+		}
+	}
+
+	/**
+	 * Reads the body of the wrapped request the first time it is needed.
+	 *
+	 * @return the cached body of the request.
+	 *
+	 * @throws IOException              if the body could not be read from the wrapped request.
+	 * @throws PayloadTooLargeException if the body is larger than the maximum allowed size.
+	 */
+	private CachedBody cachedBody() throws IOException {
+		if (this.cachedBody == null) {
+			this.cachedBody = CachedBody.read(
+				super.getInputStream(), this.getContentLengthLong(), this.maxBodySize, this.spillThreshold
+			);
+		}
+
+		return this.cachedBody;
+	}
+
 	/**
 	 * Returns the value of the given key in the data attribute of the request and
 	 * removes it from the map.
@@ -98,18 +244,23 @@ public class HttpRequest extends HttpServletRequestWrapper {
 	/**
 	 * Wrapper class for the cached body. This class is used to provide a way to
 	 * read the body multiple times.
+	 * <p>
+	 * As the whole body is already available, the stream never blocks: the bulk
+	 * operations copy directly from the cached body, and a {@link ReadListener}
+	 * is notified as soon as it is set.
 	 */
 	static class CachedBodyServletInputStream extends ServletInputStream {
-		private final InputStream cachedBodyInputStream;
+		private final ByteBuffer cachedBody;
+		private ReadListener readListener;
 
 		/**
 		 * Constructs a new {@link CachedBodyServletInputStream} for the given
-		 * byte array body.
+		 * body.
 		 *
-		 * @param cachedBody the byte array body to wrap.
+		 * @param cachedBody the body to wrap, positioned at its first byte.
 		 */
-		public CachedBodyServletInputStream(byte[] cachedBody) {
-			this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody);
+		public CachedBodyServletInputStream(ByteBuffer cachedBody) {
+			this.cachedBody = cachedBody;
 		}
 
 		/**
@@ -117,11 +268,7 @@ public class HttpRequest extends HttpServletRequestWrapper {
 		 */
 		@Override
 		public boolean isFinished() {
-			try {
-				return this.cachedBodyInputStream.available() == 0;
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			}
+			return !this.cachedBody.hasRemaining();
 		}
 
 		/**
@@ -133,19 +280,94 @@ public class HttpRequest extends HttpServletRequestWrapper {
 		}
 
 		/**
+		 * Sets the listener and immediately notifies it: the data is available
+		 * (if the body has not been read yet) and, once it has been read, the end
+		 * of the body. Any error thrown by the listener is passed to its
+		 * {@link ReadListener#onError(Throwable)} method.
+		 * <p>
 		 * {@inheritDoc}
 		 */
 		@Override
 		public void setReadListener(ReadListener listener) {
-			throw new UnsupportedOperationException();
+			Objects.requireNonNull(listener, "The read listener must not be null");
+
+			if (this.readListener != null) {
+				throw new IllegalStateException("The read listener has already been set");
+			}
+
+			this.readListener = listener;
+
+			try {
+				if (!this.isFinished()) {
+					listener.onDataAvailable();
+				}
+
+				if (this.isFinished()) {
+					listener.onAllDataRead();
+				}
+			} catch (IOException | RuntimeException e) {
+				listener.onError(e);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int read() {
+			return this.cachedBody.hasRemaining() ? this.cachedBody.get() & 0xFF : -1;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) {
+			Objects.checkFromIndexSize(off, len, b.length);
+
+			if (len == 0) {
+				return 0;
+			}
+
+			if (!this.cachedBody.hasRemaining()) {
+				return -1;
+			}
+
+			int count = Math.min(len, this.cachedBody.remaining());
+			this.cachedBody.get(b, off, count);
+			return count;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public byte[] readAllBytes() {
+			byte[] bytes = new byte[this.cachedBody.remaining()];
+			this.cachedBody.get(bytes);
+			return bytes;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long skip(long n) {
+			if (n <= 0) {
+				return 0;
+			}
+
+			int count = (int) Math.min(n, this.cachedBody.remaining());
+			this.cachedBody.position(this.cachedBody.position() + count);
+			return count;
 		}
 
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
-		public int read() throws IOException {
-			return this.cachedBodyInputStream.read();
+		public int available() {
+			return this.cachedBody.remaining();
 		}
 	}
 }
@@ -1,33 +1,77 @@
 package com.example.restspringtemplate.net.http;
 
 import com.example.restspringtemplate.exceptions.InternalServerException;
+import com.example.restspringtemplate.json.serializers.GsonValue;
 import com.example.restspringtemplate.utils.Constants;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.example.restspringtemplate.utils.Constants.DATA_JSON_KEY;
+import static com.example.restspringtemplate.utils.Constants.DEFAULT_RESPONSE_BUFFER_LIMIT;
 import static com.example.restspringtemplate.utils.Constants.ERROR_JSON_KEY;
-import static com.example.restspringtemplate.utils.Constants.GSON;
-import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.STREAM_FLUSH_INTERVAL;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.HttpHeaders.LOCATION;
-import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.HttpHeaders.VARY;
 
 /**
  * Class that simplifies the management of the response to the client.
  * Wraps the {@link HttpServletResponse} class, to add more functionality, such as
  * setting the status of the response, and sending the response to the client in an easier way.
+ * <p>
+ * The bodies are serialized in the format requested by the client (see
+ * {@link ResponseFormat}), JSON by default, and they are compressed when the
+ * client accepts it (see {@link ResponseCompression}).
+ * <p>
+ * Successful responses to {@code GET} and {@code HEAD} requests can carry an
+ * {@code ETag}, computed from the serialized body ({@link #withETag()}) or
+ * supplied by the controller ({@link #eTag(String)}). If the client already
+ * has that version of the resource ({@code If-None-Match}), a
+ * {@link HttpStatus#NOT_MODIFIED} response is sent without a body.
+ * <p>
+ * Large sequences of elements can be streamed to the client
+ * ({@link #stream(Stream, StreamFormat)}), so that they never need to be in
+ * memory at the same time.
+ * <p>
+ * The values are serialized as GSON would serialize them (see {@link GsonValue}),
+ * whatever the format of the body.
  */
 @Slf4j
 public class HttpResponse extends HttpServletResponseWrapper {
+	/**
+	 * HTTP methods whose responses can be answered with {@link HttpStatus#NOT_MODIFIED}.
+	 */
+	private static final Set<String> CONDITIONAL_METHODS = Set.of("GET", "HEAD");
+
+	/**
+	 * Largest body (in bytes) that is kept in memory to be sent with its exact length.
+	 */
+	private static volatile int bufferLimit = DEFAULT_RESPONSE_BUFFER_LIMIT;
+
 	private HttpStatus status = null;
+	private String version = null;
+	private boolean computeETag = false;
 
 	/**
 	 * Constructs a response adaptor wrapping the given response.
@@ -40,6 +84,17 @@ public class HttpResponse extends HttpServletResponseWrapper {
 		super(response);
 	}
 
+	/**
+	 * Sets the size above which the serialized bodies are no longer kept in
+	 * memory, but sent to the client while they are serialized (without a
+	 * Content-Length).
+	 *
+	 * @param limit the size of the largest body kept in memory, in bytes.
+	 */
+	public static void setBufferLimit(int limit) {
+		bufferLimit = limit;
+	}
+
 	/**
 	 * Sets the status of the response.
 	 *
@@ -96,6 +151,38 @@ public class HttpResponse extends HttpServletResponseWrapper {
 		return this.status(HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Computes a strong ETag over the serialized body when it is sent. The body
+	 * is still serialized, but it is not sent if the client already has it.
+	 *
+	 * @return this response with the ETag enabled.
+	 */
+	public HttpResponse withETag() {
+		this.computeETag = true;
+		return this;
+	}
+
+	/**
+	 * Sets the ETag of the response to the given version of the resource. The
+	 * body is not serialized if the client already has this version.
+	 * <p>
+	 * The tag is made specific to the format of the body and to the encoding
+	 * accepted by the client, but not to the size of the body (which is not known
+	 * before serializing it), so that the {@link HttpStatus#NOT_MODIFIED}
+	 * responses carry the same tag as the full ones.
+	 *
+	 * @param version the version of the resource (without quotes). It must
+	 *                change whenever the content of the response changes.
+	 *
+	 * @return this response with the ETag set.
+	 *
+	 * @throws IllegalArgumentException if the version is not a valid ETag.
+	 */
+	public HttpResponse eTag(String version) {
+		this.version = EntityTag.validate(version);
+		return this;
+	}
+
 	/**
 	 * Immediately sends a response with the given status and empty body.
 	 *
@@ -104,7 +191,7 @@ public class HttpResponse extends HttpServletResponseWrapper {
 	 * @throws IOException if an error occurs while sending the response.
 	 */
 	public void sendStatus(HttpStatus status) throws IOException {
-		this.status(status).send(HttpResponseBody.EMPTY);
+		this.status(status).send(PreEncodedBody.EMPTY);
 	}
 
 	/**
@@ -113,7 +200,7 @@ public class HttpResponse extends HttpServletResponseWrapper {
 	 * @throws IOException if an error occurs while sending the response.
 	 */
 	public void send() throws IOException {
-		this.send(HttpResponseBody.EMPTY);
+		this.send(PreEncodedBody.EMPTY);
 	}
 
 	/**
@@ -147,20 +234,25 @@ public class HttpResponse extends HttpServletResponseWrapper {
 	 * @throws InternalServerException if the status of the response is not set.
 	 */
 	public void send(HttpResponseBody body) throws IOException {
-		if (this.status == null) {
-			log.error("Http response status must not be null");
-			throw new InternalServerException("Please try again later.");
+		if (body == HttpResponseBody.EMPTY) {
+			// This is done like this to send a completely empty response body.
+			this.send(PreEncodedBody.EMPTY);
+			return;
 		}
 
-		this.setContentType(APPLICATION_JSON_VALUE);
+		this.checkStatus();
 
-		if (body == HttpResponseBody.EMPTY) {
-			// This is done like this to send a completely empty response body.
-			this.getWriter().print(body.value()); // Empty string
+		HttpServletRequest request = currentRequest();
+		ResponseFormat format = this.negotiateFormat(request);
+		String tag = this.tagOf(format);
+		String eTag = this.eTagHeader(request, tag, -1);
+
+		if (this.isNotModified(request, tag)) {
+			this.sendNotModified(request, eTag);
 			return;
 		}
 
-		JsonElement responseBody = body.data;
+		Object responseBody = body.data;
 
 		// If the response body contains only one element, send it directly (without the key)
 		// to simplify the json sent to the client.
@@ -168,20 +260,362 @@ public class HttpResponse extends HttpServletResponseWrapper {
 			responseBody = body.value();
 		}
 
-		// Serialize the response body to json and send it to the client.
-		OBJECT_MAPPER.writeValue(this.getWriter(), responseBody);
+		// Serialize the response body in the negotiated format in a single pass (the values are
+		// written as they are traversed, without building an intermediate tree) into a pooled
+		// buffer, so that it is sent with its exact length in a single write. Bodies above the
+		// limit are sent while they are serialized instead, unless the ETag must be computed
+		// over the whole body.
+		int limit = this.computeETag ? Integer.MAX_VALUE - 8 : bufferLimit;
+		ResponseBuffer buffer = new ResponseBuffer(limit, () -> this.open(request, format, -1, eTag));
+
+		try {
+			try {
+				format.writer().writeValue(buffer, responseBody);
+			} catch (IOException | RuntimeException e) {
+				// The part of the body that has already been sent is not completed.
+				buffer.abort();
+				throw e;
+			}
+
+			buffer.close();
+
+			if (buffer.isStreaming()) {
+				return;
+			}
+
+			String sentETag = eTag;
+
+			if (this.computeETag && tag == null) {
+				tag = EntityTag.of(buffer.array(), buffer.size());
+				sentETag = this.eTagHeader(request, tag, buffer.size());
+
+				if (this.isNotModified(request, tag)) {
+					this.sendNotModified(request, sentETag);
+					return;
+				}
+			}
+
+			this.write(request, format, buffer.array(), buffer.size(), sentETag);
+		} finally {
+			buffer.release();
+		}
+	}
+
+	/**
+	 * Sends a response with the given pre-encoded body. The content is written
+	 * as is, with its precomputed length (and ETag), so it is not serialized again.
+	 *
+	 * @param body the body of the response to be sent.
+	 *
+	 * @throws IOException             if an error occurs while sending the response.
+	 * @throws InternalServerException if the status of the response is not set.
+	 */
+	public void send(PreEncodedBody body) throws IOException {
+		this.checkStatus();
+
+		HttpServletRequest request = currentRequest();
+		ResponseFormat format = this.negotiateFormat(request);
+		int length = body.contentLength(format);
+		String tag = this.tagOf(format);
+		String eTag = this.eTagHeader(request, tag, -1);
+
+		if (this.computeETag && tag == null) {
+			tag = body.eTag(format);
+			eTag = this.eTagHeader(request, tag, length);
+		}
+
+		if (this.isNotModified(request, tag)) {
+			this.sendNotModified(request, eTag);
+			return;
+		}
+
+		this.write(request, format, body.content(format), length, eTag);
+	}
+
+	/**
+	 * Streams the given elements to the client in the given format. Each element
+	 * is serialized and written as soon as it is consumed from the stream, and
+	 * the output is flushed every {@link Constants#STREAM_FLUSH_INTERVAL}
+	 * elements (and after the first one, so that the client starts receiving
+	 * data as soon as possible). The stream is closed when all the elements have
+	 * been written.
+	 * <p>
+	 * Arrays are encoded in the format accepted by the client, as the bodies
+	 * of {@link #send(Object)} are, while {@link StreamFormat#NDJSON} is
+	 * always JSON.
+	 * <p>
+	 * The length of the response is not known in advance, so it is sent chunked.
+	 * If an error occurs in the middle of the stream, the response is already
+	 * committed: the error is rethrown without completing the body (neither the
+	 * JSON array nor the compressed data), so that the connection is closed and
+	 * the client can tell that the body is truncated.
+	 *
+	 * @param elements the elements to be sent.
+	 * @param format   the format of the response.
+	 * @param <T>      the type of the elements.
+	 *
+	 * @throws IOException             if an error occurs while sending the response.
+	 * @throws InternalServerException if the status of the response is not set.
+	 */
+	public <T> void stream(Stream<T> elements, StreamFormat format) throws IOException {
+		try (elements) {
+			this.stream(elements.iterator(), format);
+		}
+	}
+
+	/**
+	 * Streams the elements of the given iterator to the client in the given
+	 * format (see {@link #stream(Stream, StreamFormat)}).
+	 *
+	 * @param elements the elements to be sent.
+	 * @param format   the format of the response.
+	 * @param <T>      the type of the elements.
+	 *
+	 * @throws IOException             if an error occurs while sending the response.
+	 * @throws InternalServerException if the status of the response is not set.
+	 */
+	public <T> void stream(Iterator<T> elements, StreamFormat format) throws IOException {
+		this.checkStatus();
+
+		HttpServletRequest request = currentRequest();
+		ResponseFormat encoding = format.encoding(this.negotiateFormat(request));
+		ObjectWriter writer = encoding.streamWriter();
+		ResponseCompression compression = ResponseCompression.of(request);
+
+		this.setContentType(format.contentType(encoding));
+
+		if (format == StreamFormat.NDJSON) {
+			if (compression.isApplicable(request)) {
+				this.addHeader(VARY, ACCEPT_ENCODING);
+			}
+		} else {
+			this.addVaryHeader(request);
+		}
+
+		ResponseCompression.Encoding contentEncoding = compression.negotiate(request, -1);
+		OutputStream out = this.getOutputStream();
+		ResponseCompression.CompressedOutputStream compressed = null;
+
+		if (contentEncoding != null) {
+			this.setHeader(CONTENT_ENCODING, contentEncoding.token());
+			compressed = compression.open(out, contentEncoding);
+			out = compressed;
+		}
+
+		try (JsonGenerator generator = writer.createGenerator(out)) {
+			// Closing the generator must not close the servlet stream, nor
+			// close the array if the stream fails.
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+			if (format == StreamFormat.JSON_ARRAY) {
+				generator.writeStartArray();
+			}
+
+			long count = 0;
+
+			while (elements.hasNext()) {
+				writer.writeValue(generator, GsonValue.of(elements.next()));
+
+				if (format == StreamFormat.NDJSON) {
+					generator.writeRaw('\n');
+				}
+
+				if (++count == 1 || count % STREAM_FLUSH_INTERVAL == 0) {
+					generator.flush();
+				}
+			}
+
+			if (format == StreamFormat.JSON_ARRAY) {
+				generator.writeEndArray();
+			}
+		} catch (IOException | RuntimeException e) {
+			if (compressed != null) {
+				compressed.abort();
+			}
+
+			throw e;
+		}
+
+		if (compressed != null) {
+			compressed.finish();
+		}
+	}
+
+	/**
+	 * Chooses the format of the body with the {@code Accept} header of the request.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 *
+	 * @return the format of the body, {@link ResponseFormat#JSON} by default.
+	 */
+	private ResponseFormat negotiateFormat(HttpServletRequest request) {
+		return ResponseFormat.fromAccept(request == null ? null : request.getHeader(ACCEPT));
+	}
+
+	/**
+	 * @param format the format of the body.
+	 *
+	 * @return the opaque value of the tag supplied by the controller, made
+	 * specific to the given format, or {@code null} if there is none.
+	 */
+	private String tagOf(ResponseFormat format) {
+		return this.version == null ? null : this.version + format.tagSuffix();
+	}
+
+	/**
+	 * Builds the value of the {@code ETag} header of the response, which also
+	 * depends on the encoding of the body.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 * @param tag     the opaque value of the tag, or {@code null} if there is none.
+	 * @param length  the number of bytes of the body, or {@code -1} if the tag
+	 *                must not depend on it.
+	 *
+	 * @return the value of the header, or {@code null} if there is no tag.
+	 */
+	private String eTagHeader(HttpServletRequest request, String tag, int length) {
+		return tag == null ? null : EntityTag.format(tag, ResponseCompression.of(request).negotiate(request, length));
+	}
+
+	/**
+	 * Checks if the client already has the version of the resource identified
+	 * by the given tag.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 * @param tag     the opaque value of the tag of the response, or {@code null} if there is none.
+	 *
+	 * @return {@code true} if the response can be replaced by
+	 * {@link HttpStatus#NOT_MODIFIED}, {@code false} otherwise.
+	 */
+	private boolean isNotModified(HttpServletRequest request, String tag) {
+		return tag != null
+		       && request != null
+		       && this.status.is2xxSuccessful()
+		       && CONDITIONAL_METHODS.contains(request.getMethod())
+		       && EntityTag.matches(request.getHeader(IF_NONE_MATCH), tag);
+	}
+
+	/**
+	 * Sends a {@link HttpStatus#NOT_MODIFIED} response, without body, with the
+	 * same ETag that the full response would have.
+	 *
+	 * @param request request being answered.
+	 * @param eTag    the value of the {@code ETag} header of the full response.
+	 */
+	private void sendNotModified(HttpServletRequest request, String eTag) {
+		this.status(HttpStatus.NOT_MODIFIED);
+		this.addVaryHeader(request);
+		this.setHeader(ETAG, eTag);
+	}
+
+	/**
+	 * Writes the given content to the client, compressing it if the client
+	 * accepts it and it is large enough.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 * @param format  the format of the body.
+	 * @param content the serialized body.
+	 * @param length  the number of bytes of the body.
+	 * @param eTag    the value of the {@code ETag} header, or {@code null} if there is none.
+	 *
+	 * @throws IOException if an error occurs while sending the response.
+	 */
+	private void write(HttpServletRequest request, ResponseFormat format, byte[] content, int length, String eTag) throws IOException {
+		OutputStream out = this.open(request, format, length, eTag);
+
+		if (out instanceof ResponseCompression.CompressedOutputStream compressed) {
+			try (compressed) {
+				compressed.write(content, 0, length);
+			}
+		} else if (length > 0) {
+			out.write(content, 0, length);
+		}
+	}
+
+	/**
+	 * Sets the headers of the body and opens the stream to write it, which
+	 * compresses the body if the client accepts it and it is large enough.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 * @param format  the format of the body.
+	 * @param length  the number of bytes of the body, or {@code -1} if it is unknown.
+	 * @param eTag    the value of the {@code ETag} header, or {@code null} if there is none.
+	 *
+	 * @return the stream to write the body to. If the body is compressed, it
+	 * must be closed to write the end of the compressed data.
+	 *
+	 * @throws IOException if an error occurs while opening the stream.
+	 */
+	private OutputStream open(HttpServletRequest request, ResponseFormat format, int length, String eTag) throws IOException {
+		this.setContentType(format.contentType());
+		this.addVaryHeader(request);
+
+		ResponseCompression compression = ResponseCompression.of(request);
+		ResponseCompression.Encoding encoding = compression.negotiate(request, length);
+
+		if (eTag != null && this.status.is2xxSuccessful()) {
+			this.setHeader(ETAG, eTag);
+		}
+
+		if (encoding == null) {
+			if (length >= 0) {
+				this.setContentLength(length);
+			}
+
+			return this.getOutputStream();
+		}
+
+		// The compressed length is not known in advance, so the body is sent chunked.
+		this.setHeader(CONTENT_ENCODING, encoding.token());
+		return compression.open(this.getOutputStream(), encoding);
+	}
+
+	/**
+	 * Adds the request headers that the content of the response depends on.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 */
+	private void addVaryHeader(HttpServletRequest request) {
+		this.addHeader(VARY, ResponseCompression.of(request).isApplicable(request) ? ACCEPT + ", " + ACCEPT_ENCODING : ACCEPT);
+	}
+
+	/**
+	 * @return the request that is being answered, or {@code null} if it is not
+	 * available in the current thread.
+	 */
+	private static HttpServletRequest currentRequest() {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			return attributes.getRequest();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks that the status of the response has been set before sending it.
+	 *
+	 * @throws InternalServerException if the status of the response is not set.
+	 */
+	private void checkStatus() {
+		if (this.status == null) {
+			log.error("Http response status must not be null");
+			throw new InternalServerException("Please try again later.");
+		}
 	}
 
 	/**
 	 * Class that represents the body of a response.
-	 * Contains a {@link JsonObject} of elements to be sent in the response.
+	 * Contains the elements to be sent in the response, in insertion order. They
+	 * are serialized only when the response is sent, with the same semantics as
+	 * GSON (see {@link GsonValue}).
 	 */
 	public static class HttpResponseBody {
 		/**
 		 * An empty response body.
 		 */
 		public static final HttpResponseBody EMPTY = new HttpResponseBody(DATA_JSON_KEY, "");
-		private final JsonObject data = new JsonObject();
+		private final Map<String, Object> data = new LinkedHashMap<>(4);
 
 		/**
 		 * Constructs a response body with the given key and value.
@@ -202,7 +636,7 @@ public class HttpResponse extends HttpServletResponseWrapper {
 		 * @return this response body with the element added.
 		 */
 		public HttpResponseBody add(String key, Object value) {
-			this.data.add(key, GSON.toJsonTree(value));
+			this.data.put(key, GsonValue.of(value));
 			return this;
 		}
 
@@ -211,8 +645,8 @@ public class HttpResponse extends HttpServletResponseWrapper {
 		 *
 		 * @return the value of the first element in the body.
 		 */
-		public JsonElement value() {
-			return this.data.asMap().values().iterator().next();
+		public Object value() {
+			return this.data.values().iterator().next();
 		}
 	}
 }
@@ -0,0 +1,96 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.json.serializers.GsonValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Response body that has been serialized in advance. It is used for the
+ * responses whose content never changes, so that they are written to the client
+ * without serializing them again on each request.
+ * <p>
+ * The body is serialized once in each {@link ResponseFormat}, and the encoded
+ * contents must not be modified.
+ */
+public final class PreEncodedBody {
+	/**
+	 * A completely empty response body.
+	 */
+	public static final PreEncodedBody EMPTY = empty();
+
+	private final byte[][] contents;
+	private final String[] eTags;
+
+	private PreEncodedBody(byte[][] contents) {
+		this.contents = contents;
+		this.eTags = new String[contents.length];
+
+		for (int i = 0; i < contents.length; i++) {
+			this.eTags[i] = EntityTag.of(contents[i], contents[i].length);
+		}
+	}
+
+	private static PreEncodedBody empty() {
+		byte[][] contents = new byte[ResponseFormat.values().length][];
+		byte[] empty = new byte[0];
+
+		for (ResponseFormat format : ResponseFormat.values()) {
+			contents[format.ordinal()] = empty;
+		}
+
+		return new PreEncodedBody(contents);
+	}
+
+	/**
+	 * Serializes the given value as the content of a response, in all the
+	 * formats. As the value is the only element of the body, it is sent directly
+	 * (without the key), in the same way as {@link HttpResponse#send(Object)} does.
+	 *
+	 * @param value the value to be serialized.
+	 *
+	 * @return the serialized body.
+	 *
+	 * @throws IllegalArgumentException if the value cannot be serialized.
+	 */
+	public static PreEncodedBody of(Object value) {
+		byte[][] contents = new byte[ResponseFormat.values().length][];
+		Object content = GsonValue.of(value);
+
+		try {
+			for (ResponseFormat format : ResponseFormat.values()) {
+				contents[format.ordinal()] = format.mapper().writeValueAsBytes(content);
+			}
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Could not serialize the response body", e);
+		}
+
+		return new PreEncodedBody(contents);
+	}
+
+	/**
+	 * @param format the format of the response.
+	 *
+	 * @return the serialized content. It must not be modified.
+	 */
+	byte[] content(ResponseFormat format) {
+		return this.contents[format.ordinal()];
+	}
+
+	/**
+	 * @param format the format of the response.
+	 *
+	 * @return the opaque value of the strong entity tag of the content, which
+	 * is computed only once.
+	 */
+	String eTag(ResponseFormat format) {
+		return this.eTags[format.ordinal()];
+	}
+
+	/**
+	 * @param format the format of the response.
+	 *
+	 * @return the value of the Content-Length header of the body.
+	 */
+	public int contentLength(ResponseFormat format) {
+		return this.contents[format.ordinal()].length;
+	}
+}
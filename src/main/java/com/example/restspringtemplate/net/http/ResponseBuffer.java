@@ -0,0 +1,176 @@
+package com.example.restspringtemplate.net.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.example.restspringtemplate.utils.Constants.RESPONSE_BUFFER_POOL_SIZE;
+import static com.example.restspringtemplate.utils.Constants.RESPONSE_BUFFER_SIZE;
+
+/**
+ * Stream that collects a serialized response body in memory, so that it can be
+ * sent with an exact Content-Length in a single write. The body is collected in
+ * an array taken from a shared {@link ByteArrayPool}, which is only replaced by
+ * a larger one if the body does not fit in it.
+ * <p>
+ * Bodies larger than the limit are not kept in memory: when the limit is
+ * exceeded, the stream of the response is opened, the collected bytes are
+ * written to it and the rest of the body is written directly (so the response
+ * is sent chunked).
+ * <p>
+ * The array must be given back with {@link #release()} once the body has been sent.
+ */
+final class ResponseBuffer extends OutputStream {
+	/**
+	 * Pool shared by all the responses of the application.
+	 */
+	private static final ByteArrayPool POOL = new ByteArrayPool(RESPONSE_BUFFER_SIZE, RESPONSE_BUFFER_POOL_SIZE);
+
+	private final int limit;
+	private final Target target;
+	private byte[] buffer;
+	private boolean pooled;
+	private int size;
+	private OutputStream out;
+	private boolean closed;
+
+	/**
+	 * Constructs a new buffer.
+	 *
+	 * @param limit  maximum number of bytes kept in memory.
+	 * @param target opens the stream of the response when the limit is exceeded.
+	 */
+	ResponseBuffer(int limit, Target target) {
+		this.limit = limit;
+		this.target = target;
+		this.buffer = POOL.acquire();
+		this.pooled = true;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (this.out == null && this.size == this.buffer.length) {
+			this.ensureCapacity(1);
+		}
+
+		if (this.out != null) {
+			this.out.write(b);
+			return;
+		}
+
+		this.buffer[this.size++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		Objects.checkFromIndexSize(off, len, b.length);
+
+		if (this.out == null && this.size + len > this.buffer.length) {
+			this.ensureCapacity(len);
+		}
+
+		if (this.out != null) {
+			this.out.write(b, off, len);
+			return;
+		}
+
+		System.arraycopy(b, off, this.buffer, this.size, len);
+		this.size += len;
+	}
+
+	/**
+	 * Makes room for the given number of bytes: grows the array if the limit
+	 * allows it, or starts writing to the response otherwise.
+	 */
+	private void ensureCapacity(int len) throws IOException {
+		long required = (long) this.size + len;
+
+		if (required > this.limit) {
+			this.out = this.target.open();
+			this.out.write(this.buffer, 0, this.size);
+			this.release();
+			this.buffer = null;
+			return;
+		}
+
+		int newLength = (int) Math.min(Math.max(this.buffer.length * 2L, required), this.limit);
+		byte[] grown = Arrays.copyOf(this.buffer, newLength);
+		this.release();
+		this.buffer = grown;
+	}
+
+	/**
+	 * @return {@code true} if the limit has been exceeded and the body is being
+	 * written directly to the response, {@code false} if it is kept in memory.
+	 */
+	boolean isStreaming() {
+		return this.out != null;
+	}
+
+	/**
+	 * @return the array that holds the body, if it is kept in memory. Only the
+	 * first {@link #size()} bytes belong to the body.
+	 */
+	byte[] array() {
+		return this.buffer;
+	}
+
+	/**
+	 * @return the number of bytes of the body, if it is kept in memory.
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Closes the stream of the response if the body is being written directly
+	 * to it. The body kept in memory remains available.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+
+		this.closed = true;
+
+		if (this.out != null) {
+			this.out.close();
+		}
+	}
+
+	/**
+	 * Abandons the body that is being written directly to the response after a
+	 * failure: the compressed data (if any) is not finished, so the client can
+	 * not mistake the truncated body for a complete one.
+	 */
+	void abort() {
+		this.closed = true;
+
+		if (this.out instanceof ResponseCompression.CompressedOutputStream compressed) {
+			compressed.abort();
+		}
+	}
+
+	/**
+	 * Returns the array to the pool (if it was taken from it). The body must not
+	 * be read after calling this method.
+	 */
+	void release() {
+		if (this.pooled) {
+			POOL.release(this.buffer);
+			this.pooled = false;
+		}
+	}
+
+	/**
+	 * Opens the stream of the response.
+	 */
+	@FunctionalInterface
+	interface Target {
+		OutputStream open() throws IOException;
+	}
+}
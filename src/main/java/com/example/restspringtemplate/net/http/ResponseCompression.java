@@ -0,0 +1,404 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.config.properties.HttpResponseProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.ServletContextAware;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static com.example.restspringtemplate.utils.Constants.DEFLATER_POOL_SIZE;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+
+/**
+ * Compression of the response bodies, negotiated with the {@code Accept-Encoding}
+ * header of the request. The bodies are compressed while they are written to the
+ * client, with {@link Deflater} instances that are reused between responses.
+ * <p>
+ * {@link HttpResponse} objects are created by hand in the controllers and
+ * filters, so this bean is published as an attribute of the servlet context,
+ * where they find it with {@link #of(HttpServletRequest)}. The responses sent
+ * outside of the application context are never compressed.
+ */
+@Component
+public class ResponseCompression implements ServletContextAware {
+	private static final String ATTRIBUTE_NAME = ResponseCompression.class.getName();
+	private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Compression used when the bean is not available, which never compresses
+	 * the responses.
+	 */
+	private static final ResponseCompression DISABLED = new ResponseCompression(disabled(), new CompositeMeterRegistry());
+
+	private final boolean enabled;
+	private final long minSize;
+	private final List<String> excludedPaths;
+	private final DeflaterPool gzipDeflaters;
+	private final DeflaterPool deflateDeflaters;
+	private final Counter originalBytes;
+	private final Counter compressedBytes;
+	private final Counter savedBytes;
+
+	public ResponseCompression(HttpResponseProperties properties, MeterRegistry meterRegistry) {
+		HttpResponseProperties.Compression compression = properties.getCompression();
+
+		this.enabled = compression.isEnabled();
+		this.minSize = compression.getMinSize().toBytes();
+		this.excludedPaths = List.copyOf(compression.getExcludedPaths());
+		this.gzipDeflaters = new DeflaterPool(compression.getLevel(), true);
+		this.deflateDeflaters = new DeflaterPool(compression.getLevel(), false);
+		this.originalBytes = Counter.builder("http.response.compression.original")
+		                            .description("Size of the compressed responses before compressing them")
+		                            .baseUnit("bytes")
+		                            .register(meterRegistry);
+		this.compressedBytes = Counter.builder("http.response.compression.compressed")
+		                              .description("Size of the compressed responses")
+		                              .baseUnit("bytes")
+		                              .register(meterRegistry);
+		this.savedBytes = Counter.builder("http.response.compression.saved")
+		                         .description("Bytes saved by compressing the responses")
+		                         .baseUnit("bytes")
+		                         .register(meterRegistry);
+	}
+
+	private static HttpResponseProperties disabled() {
+		HttpResponseProperties properties = new HttpResponseProperties();
+		properties.getCompression().setEnabled(false);
+		return properties;
+	}
+
+	/**
+	 * Publishes this bean as an attribute of the servlet context, to be found
+	 * by the responses of the application.
+	 */
+	@Override
+	public void setServletContext(ServletContext servletContext) {
+		servletContext.setAttribute(ATTRIBUTE_NAME, this);
+	}
+
+	/**
+	 * Finds the compression of the application that handles the given request.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 *
+	 * @return the compression of the application, or one that never compresses
+	 * the responses if it is not available.
+	 */
+	static ResponseCompression of(HttpServletRequest request) {
+		if (request != null && request.getServletContext().getAttribute(ATTRIBUTE_NAME) instanceof ResponseCompression compression) {
+			return compression;
+		}
+
+		return DISABLED;
+	}
+
+	/**
+	 * Checks if the response to the given request can be compressed, regardless
+	 * of its size.
+	 *
+	 * @param request request being answered, or {@code null} if it is unknown.
+	 *
+	 * @return {@code true} if the response varies depending on the
+	 * {@code Accept-Encoding} header, {@code false} otherwise.
+	 */
+	boolean isApplicable(HttpServletRequest request) {
+		if (!this.enabled || request == null) {
+			return false;
+		}
+
+		String path = request.getServletPath();
+
+		for (String pattern : this.excludedPaths) {
+			if (PATH_MATCHER.match(pattern, path)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Chooses the encoding of a response with the given length.
+	 *
+	 * @param request       request being answered, or {@code null} if it is unknown.
+	 * @param contentLength length of the uncompressed response, or {@code -1} if it is unknown.
+	 *
+	 * @return the encoding to use, or {@code null} if the response must not be compressed.
+	 */
+	Encoding negotiate(HttpServletRequest request, long contentLength) {
+		if (!this.isApplicable(request) || (contentLength >= 0 && contentLength < this.minSize)) {
+			return null;
+		}
+
+		return Encoding.fromAcceptEncoding(request.getHeader(ACCEPT_ENCODING));
+	}
+
+	/**
+	 * Opens a stream that compresses everything written to it, and writes the
+	 * result to the given stream. It must be finished with
+	 * {@link CompressedOutputStream#finish()}, which does not close the
+	 * underlying stream.
+	 *
+	 * @param out      stream to write the compressed data to.
+	 * @param encoding encoding of the compressed data.
+	 *
+	 * @return the stream to write the uncompressed data to.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	CompressedOutputStream open(OutputStream out, Encoding encoding) throws IOException {
+		DeflaterPool pool = encoding == Encoding.GZIP ? this.gzipDeflaters : this.deflateDeflaters;
+		return new CompressedOutputStream(out, this, pool, encoding == Encoding.GZIP);
+	}
+
+	/**
+	 * Records the sizes of a compressed response.
+	 */
+	private void record(long original, long compressed) {
+		this.originalBytes.increment(original);
+		this.compressedBytes.increment(compressed);
+		this.savedBytes.increment(Math.max(0, original - compressed));
+	}
+
+	/**
+	 * Supported content encodings, in order of preference.
+	 */
+	enum Encoding {
+		GZIP("gzip"),
+		DEFLATE("deflate");
+
+		private final String token;
+
+		Encoding(String token) {
+			this.token = token;
+		}
+
+		/**
+		 * @return the value of the {@code Content-Encoding} header.
+		 */
+		String token() {
+			return this.token;
+		}
+
+		/**
+		 * Chooses the preferred encoding accepted by the client. Encodings with a
+		 * higher quality value are preferred, and {@code gzip} wins the ties.
+		 *
+		 * @param acceptEncoding value of the {@code Accept-Encoding} header.
+		 *
+		 * @return the chosen encoding, or {@code null} if none is accepted.
+		 */
+		static Encoding fromAcceptEncoding(String acceptEncoding) {
+			if (!StringUtils.hasText(acceptEncoding)) {
+				return null;
+			}
+
+			Encoding best = null;
+			double bestQuality = 0;
+			double wildcardQuality = -1;
+			boolean[] listed = new boolean[values().length];
+
+			for (String coding : acceptEncoding.split(",")) {
+				int separator = coding.indexOf(';');
+				String name = (separator == -1 ? coding : coding.substring(0, separator)).trim();
+				double quality = separator == -1 ? 1 : parseQuality(coding.substring(separator + 1));
+
+				if (name.equals("*")) {
+					wildcardQuality = quality;
+					continue;
+				}
+
+				for (Encoding encoding : values()) {
+					if (encoding.token.equalsIgnoreCase(name)) {
+						listed[encoding.ordinal()] = true;
+
+						if (quality > bestQuality || (quality == bestQuality && best != null && encoding.ordinal() < best.ordinal())) {
+							best = encoding;
+							bestQuality = quality;
+						}
+					}
+				}
+			}
+
+			// The wildcard applies to the encodings that are not listed explicitly.
+			if (wildcardQuality > bestQuality) {
+				for (Encoding encoding : values()) {
+					if (!listed[encoding.ordinal()]) {
+						return encoding;
+					}
+				}
+			}
+
+			return best;
+		}
+
+		private static double parseQuality(String parameters) {
+			for (String parameter : parameters.split(";")) {
+				String trimmed = parameter.trim();
+
+				if (trimmed.startsWith("q=")) {
+					try {
+						return Double.parseDouble(trimmed.substring(2));
+					} catch (NumberFormatException e) {
+						return 0;
+					}
+				}
+			}
+
+			return 1;
+		}
+	}
+
+	/**
+	 * Stream that compresses the data written to it with a pooled {@link Deflater},
+	 * which is given back to the pool when the stream is finished.
+	 */
+	static final class CompressedOutputStream extends DeflaterOutputStream {
+		private static final byte[] GZIP_HEADER = {
+			0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+		};
+		private static final int GZIP_HEADER_TRAILER_SIZE = GZIP_HEADER.length + 8;
+
+		private final ResponseCompression compression;
+		private final DeflaterPool pool;
+		private final CRC32 crc;
+		private boolean finished;
+
+		private CompressedOutputStream(OutputStream out, ResponseCompression compression, DeflaterPool pool, boolean gzip) throws IOException {
+			super(out, pool.acquire(), BUFFER_SIZE, true);
+			this.compression = compression;
+			this.pool = pool;
+			this.crc = gzip ? new CRC32() : null;
+
+			if (gzip) {
+				out.write(GZIP_HEADER);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			super.write(b, off, len);
+
+			if (this.crc != null) {
+				this.crc.update(b, off, len);
+			}
+		}
+
+		/**
+		 * Writes the remaining compressed data (and the gzip trailer), records the
+		 * metrics and returns the deflater to the pool. The underlying stream is
+		 * not closed.
+		 *
+		 * @throws IOException if an I/O error occurs.
+		 */
+		@Override
+		public void finish() throws IOException {
+			if (this.finished) {
+				return;
+			}
+
+			this.finished = true;
+
+			try {
+				super.finish();
+
+				long compressed = this.def.getBytesWritten();
+
+				if (this.crc != null) {
+					writeIntLE(this.out, (int) this.crc.getValue());
+					writeIntLE(this.out, (int) this.def.getBytesRead());
+					compressed += GZIP_HEADER_TRAILER_SIZE;
+				}
+
+				this.compression.record(this.def.getBytesRead(), compressed);
+			} finally {
+				this.pool.release(this.def);
+			}
+		}
+
+		/**
+		 * Returns the deflater to the pool without writing the remaining
+		 * compressed data (nor the gzip trailer), so that the compressed body is
+		 * left incomplete. It is used when the content could not be fully
+		 * written. The underlying stream is not closed.
+		 */
+		void abort() {
+			if (this.finished) {
+				return;
+			}
+
+			this.finished = true;
+			this.pool.release(this.def);
+		}
+
+		/**
+		 * Finishes the stream, without closing the underlying stream.
+		 *
+		 * @throws IOException if an I/O error occurs.
+		 */
+		@Override
+		public void close() throws IOException {
+			this.finish();
+		}
+
+		private static void writeIntLE(OutputStream out, int value) throws IOException {
+			out.write(value & 0xff);
+			out.write((value >> 8) & 0xff);
+			out.write((value >> 16) & 0xff);
+			out.write((value >> 24) & 0xff);
+		}
+	}
+
+	/**
+	 * Bounded pool of deflaters of the same format.
+	 */
+	private static final class DeflaterPool {
+		private final int level;
+		private final boolean nowrap;
+		private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger size = new AtomicInteger();
+
+		private DeflaterPool(int level, boolean nowrap) {
+			this.level = level;
+			this.nowrap = nowrap;
+		}
+
+		private Deflater acquire() {
+			Deflater deflater = this.deflaters.poll();
+
+			if (deflater == null) {
+				return new Deflater(this.level, this.nowrap);
+			}
+
+			this.size.decrementAndGet();
+			return deflater;
+		}
+
+		private void release(Deflater deflater) {
+			deflater.reset();
+
+			if (this.size.incrementAndGet() <= DEFLATER_POOL_SIZE) {
+				this.deflaters.offer(deflater);
+			} else {
+				this.size.decrementAndGet();
+				deflater.end();
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.example.restspringtemplate.net.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Locale;
+
+import static com.example.restspringtemplate.utils.Constants.CBOR_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.SMILE_MAPPER;
+
+/**
+ * Formats in which the bodies of the responses can be serialized, negotiated
+ * with the {@code Accept} header of the request. All of them share the same
+ * structure (and the same serializers), only the encoding changes.
+ */
+public enum ResponseFormat {
+	JSON(MediaType.APPLICATION_JSON, OBJECT_MAPPER),
+	CBOR(MediaType.APPLICATION_CBOR, CBOR_MAPPER),
+	SMILE(new MediaType("application", "x-jackson-smile"), SMILE_MAPPER);
+
+	private final MediaType mediaType;
+	private final String contentType;
+	private final ObjectMapper mapper;
+	private final ObjectWriter writer;
+	private final ObjectWriter streamWriter;
+
+	ResponseFormat(MediaType mediaType, ObjectMapper mapper) {
+		this.mediaType = mediaType;
+		this.contentType = mediaType.toString();
+		this.mapper = mapper;
+		this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		ObjectWriter streamWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		// The binary generators have no root value separator to replace.
+		this.streamWriter = mapper.getFactory().canUseCharArrays() ? streamWriter.withRootValueSeparator("") : streamWriter;
+	}
+
+	/**
+	 * @return the value of the Content-Type header of the responses in this format.
+	 */
+	public String contentType() {
+		return this.contentType;
+	}
+
+	/**
+	 * @return the mapper that serializes the bodies in this format.
+	 */
+	ObjectMapper mapper() {
+		return this.mapper;
+	}
+
+	/**
+	 * @return the writer that serializes the bodies in this format to a
+	 * stream, without closing it (so that a body whose serialization fails is
+	 * not completed).
+	 */
+	ObjectWriter writer() {
+		return this.writer;
+	}
+
+	/**
+	 * @return the writer of the streamed elements in this format. The generator
+	 * is flushed periodically instead of after each element, and the JSON root
+	 * values are separated only by the newlines of {@link StreamFormat#NDJSON}.
+	 */
+	ObjectWriter streamWriter() {
+		return this.streamWriter;
+	}
+
+	/**
+	 * @return the suffix added to the entity tags supplied by the application,
+	 * so that each format has a different tag.
+	 */
+	String tagSuffix() {
+		return this == JSON ? "" : '-' + this.name().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Chooses the preferred format accepted by the client. Formats with a higher
+	 * quality value are preferred, and the ties are won by JSON, which is also
+	 * the format used if the client does not accept any of them.
+	 *
+	 * @param accept value of the {@code Accept} header, or {@code null} if it is not present.
+	 *
+	 * @return the chosen format.
+	 */
+	static ResponseFormat fromAccept(String accept) {
+		// Most clients only accept JSON (or anything), so the header is not
+		// parsed unless it mentions one of the binary formats.
+		if (accept == null || !(accept.contains("cbor") || accept.contains("smile"))) {
+			return JSON;
+		}
+
+		List<MediaType> mediaTypes;
+
+		try {
+			mediaTypes = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return JSON;
+		}
+
+		ResponseFormat best = JSON;
+		double bestQuality = 0;
+
+		for (ResponseFormat format : values()) {
+			double quality = format.qualityIn(mediaTypes);
+
+			if (quality > bestQuality) {
+				best = format;
+				bestQuality = quality;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @return the quality value of the most specific of the given media types that
+	 * includes this format, or {@code 0} if none of them does.
+	 */
+	private double qualityIn(List<MediaType> mediaTypes) {
+		MediaType match = null;
+
+		for (MediaType mediaType : mediaTypes) {
+			if (mediaType.includes(this.mediaType) && (match == null || match.includes(mediaType))) {
+				match = mediaType;
+			}
+		}
+
+		return match == null ? 0 : match.getQualityValue();
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.restspringtemplate.net.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the response bodies that never change. Controllers register their
+ * constant payloads at startup, and send the pre-encoded bodies with
+ * {@link HttpResponse#send(PreEncodedBody)}.
+ */
+@Slf4j
+@Component
+public class StaticResponseRegistry {
+	private final Map<String, PreEncodedBody> bodies = new ConcurrentHashMap<>();
+
+	/**
+	 * Serializes the given value and registers it with the given name.
+	 *
+	 * @param name  unique name of the body.
+	 * @param value the value to be serialized.
+	 *
+	 * @return the registered body.
+	 *
+	 * @throws IllegalStateException    if there is already a body with the same name.
+	 * @throws IllegalArgumentException if the value cannot be serialized.
+	 */
+	public PreEncodedBody register(String name, Object value) {
+		PreEncodedBody body = PreEncodedBody.of(value);
+
+		if (this.bodies.putIfAbsent(name, body) != null) {
+			throw new IllegalStateException("There is already a static response named " + name);
+		}
+
+		log.debug("Registered static response {} ({} bytes)", name, body.contentLength(ResponseFormat.JSON));
+		return body;
+	}
+
+	/**
+	 * Gets the body registered with the given name.
+	 *
+	 * @param name name of the body.
+	 *
+	 * @return the registered body.
+	 *
+	 * @throws IllegalArgumentException if there is no body with the given name.
+	 */
+	public PreEncodedBody get(String name) {
+		PreEncodedBody body = this.bodies.get(name);
+
+		if (body == null) {
+			throw new IllegalArgumentException("There is no static response named " + name);
+		}
+
+		return body;
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.restspringtemplate.net.http;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Formats in which a sequence of elements can be streamed to the client
+ * (see {@link HttpResponse#stream(java.util.stream.Stream, StreamFormat)}).
+ */
+public enum StreamFormat {
+	/**
+	 * A single array with all the elements. It is the same content that is sent
+	 * for a list with {@link HttpResponse#send(Object)}, so it is encoded in the
+	 * {@link ResponseFormat} accepted by the client (JSON by default).
+	 */
+	JSON_ARRAY,
+
+	/**
+	 * Newline delimited JSON: each element in its own line, so that the client
+	 * can process them as they arrive. The lines are always JSON, as the binary
+	 * formats have no line delimited variant.
+	 */
+	NDJSON;
+
+	/**
+	 * @param accepted the format accepted by the client.
+	 *
+	 * @return the format in which the elements are encoded.
+	 */
+	ResponseFormat encoding(ResponseFormat accepted) {
+		return this == NDJSON ? ResponseFormat.JSON : accepted;
+	}
+
+	/**
+	 * @param encoding the format in which the elements are encoded.
+	 *
+	 * @return the value of the Content-Type header of the responses in this format.
+	 */
+	String contentType(ResponseFormat encoding) {
+		return this == NDJSON ? APPLICATION_NDJSON_VALUE : encoding.contentType();
+	}
+}
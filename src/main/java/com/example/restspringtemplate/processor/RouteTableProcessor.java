@@ -0,0 +1,523 @@
+package com.example.restspringtemplate.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that collects the routes of the controllers into the
+ * {@code RouteTable} class at compile time, with the roles allowed by the
+ * {@code @Tier} of each handler method.
+ * <p>
+ * The controllers are the concrete classes annotated with {@code @Controller},
+ * directly or through another annotation (like {@code @RestController}). Their
+ * handler methods include the ones inherited from their superclasses and
+ * interfaces, and the annotations of a method are also looked up in the
+ * methods it overrides, as Spring does.
+ * <p>
+ * The following mistakes are reported as compilation errors instead of
+ * becoming routes that reject every request:
+ * <ul>
+ *     <li>Handler methods without {@code @Tier} (nor {@code @PublicRoute}).</li>
+ *     <li>Methods with {@code @Tier} that are not handler methods.</li>
+ *     <li>Handler methods that do not declare their HTTP methods.</li>
+ *     <li>Routes declared twice for the same HTTP method.</li>
+ *     <li>Paths that the route authorization can not match.</li>
+ *     <li>Mappings declared through composed annotations, whose paths can not be read.</li>
+ * </ul>
+ * <p>
+ * The processor only reads the annotations by name, so it does not need the
+ * classes of Spring to run.
+ */
+@SupportedAnnotationTypes("*") // The table is generated even if there are no controllers
+public class RouteTableProcessor extends AbstractProcessor {
+	private static final String TIER = "com.example.restspringtemplate.router.Tier";
+	private static final String PUBLIC_ROUTE = "com.example.restspringtemplate.router.PublicRoute";
+	private static final String CONTROLLER = "org.springframework.stereotype.Controller";
+
+	private static final String PACKAGE = "com.example.restspringtemplate.router";
+	private static final String TABLE = "RouteTable";
+	private static final String MAPPINGS = "org.springframework.web.bind.annotation.";
+	private static final String REQUEST_MAPPING = MAPPINGS + "RequestMapping";
+	private static final Map<String, String> METHOD_MAPPINGS = Map.of(
+		MAPPINGS + "GetMapping", "GET",
+		MAPPINGS + "PostMapping", "POST",
+		MAPPINGS + "PutMapping", "PUT",
+		MAPPINGS + "DeleteMapping", "DELETE",
+		MAPPINGS + "PatchMapping", "PATCH"
+	);
+
+	private boolean generated;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		// All the controllers are in the first round.
+		if (this.generated) {
+			return false;
+		}
+
+		this.generated = true;
+
+		Set<ExecutableElement> tiered = new LinkedHashSet<>();
+		List<TypeElement> controllers = new ArrayList<>();
+
+		for (TypeElement annotation : annotations) {
+			if (annotation.getQualifiedName().contentEquals(TIER)) {
+				for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+					tiered.add((ExecutableElement) element);
+				}
+			}
+		}
+
+		for (Element element : roundEnv.getRootElements()) {
+			this.findControllers(element, controllers);
+		}
+
+		List<String> entries = new ArrayList<>();
+		Map<String, Element> declared = new HashMap<>();
+
+		for (TypeElement controller : controllers) {
+			for (ExecutableElement method : ElementFilter.methodsIn(this.processingEnv.getElementUtils().getAllMembers(controller))) {
+				List<ExecutableElement> hierarchy = this.hierarchy(controller, method);
+				ExecutableElement mapped = this.findMapped(controller, hierarchy);
+
+				if (mapped != null) {
+					tiered.removeAll(hierarchy);
+					this.collect(controller, mapped, hierarchy, declared, entries);
+				}
+			}
+		}
+
+		for (ExecutableElement method : tiered) {
+			this.error(method, "@Tier can only be used on the handler methods of a controller");
+		}
+
+		this.write(entries);
+		return false;
+	}
+
+	/**
+	 * Finds the controllers among the given element and the types nested in it.
+	 *
+	 * @param element     the element to search.
+	 * @param controllers the controllers found so far.
+	 */
+	private void findControllers(Element element, List<TypeElement> controllers) {
+		if (!(element instanceof TypeElement type)) {
+			return;
+		}
+
+		// Spring does not register abstract classes as beans, so their routes are collected from their subclasses.
+		if (type.getKind() == ElementKind.CLASS
+		    && !type.getModifiers().contains(Modifier.ABSTRACT)
+		    && isAnnotatedWith(type, CONTROLLER, new HashSet<>())) {
+			controllers.add(type);
+		}
+
+		for (Element enclosed : type.getEnclosedElements()) {
+			this.findControllers(enclosed, controllers);
+		}
+	}
+
+	/**
+	 * Lists a method of a controller and the methods that it overrides, from
+	 * the nearest to the furthest.
+	 *
+	 * @param controller the controller.
+	 * @param method     a method of the controller, declared or inherited.
+	 *
+	 * @return the method followed by the methods that it overrides.
+	 */
+	private List<ExecutableElement> hierarchy(TypeElement controller, ExecutableElement method) {
+		List<ExecutableElement> hierarchy = new ArrayList<>();
+		hierarchy.add(method);
+
+		if (method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)) {
+			return hierarchy;
+		}
+
+		Set<Element> visited = new HashSet<>();
+		List<TypeMirror> pending = new ArrayList<>(this.processingEnv.getTypeUtils().directSupertypes(controller.asType()));
+
+		while (!pending.isEmpty()) {
+			TypeMirror supertype = pending.remove(0);
+			Element type = this.processingEnv.getTypeUtils().asElement(supertype);
+
+			if (!(type instanceof TypeElement) || !visited.add(type)) {
+				continue;
+			}
+
+			for (ExecutableElement candidate : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				if (candidate != method && this.processingEnv.getElementUtils().overrides(method, candidate, controller)) {
+					hierarchy.add(candidate);
+				}
+			}
+
+			pending.addAll(this.processingEnv.getTypeUtils().directSupertypes(supertype));
+		}
+
+		return hierarchy;
+	}
+
+	/**
+	 * Finds the nearest method of the hierarchy that declares the request
+	 * mapping, as Spring does.
+	 *
+	 * @param controller the controller of the methods.
+	 * @param hierarchy  a method of the controller and the methods it overrides.
+	 *
+	 * @return the method with the request mapping, or {@code null} if it is not a handler method.
+	 */
+	private ExecutableElement findMapped(TypeElement controller, List<ExecutableElement> hierarchy) {
+		for (ExecutableElement method : hierarchy) {
+			for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+				String name = nameOf(mirror);
+
+				if (!name.equals(REQUEST_MAPPING) && !METHOD_MAPPINGS.containsKey(name)
+				    && isAnnotatedWith(mirror.getAnnotationType().asElement(), REQUEST_MAPPING, new HashSet<>())) {
+					this.error(controller, method, "Composed mapping annotations are not supported by the route table: @" + name);
+					return null;
+				}
+			}
+
+			if (!this.mappings(method).isEmpty()) {
+				return method;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Collects the routes of a handler method, checking that they are valid.
+	 *
+	 * @param controller the controller of the method.
+	 * @param method     the handler method, which declares the request mapping.
+	 * @param hierarchy  the method of the controller and the methods it overrides.
+	 * @param declared   the routes collected so far, by HTTP method and path.
+	 * @param entries    the entries of the table.
+	 */
+	private void collect(TypeElement controller,
+	                     ExecutableElement method,
+	                     List<ExecutableElement> hierarchy,
+	                     Map<String, Element> declared,
+	                     List<String> entries) {
+		AnnotationMirror tier = null;
+
+		for (int i = 0; i < hierarchy.size() && tier == null; i++) {
+			tier = annotation(hierarchy.get(i), TIER);
+		}
+
+		if (tier == null) {
+			if (!this.isPublic(controller, hierarchy)) {
+				this.error(controller, method, "Handler method without @Tier nor @PublicRoute");
+			}
+
+			return;
+		}
+
+		String role = ((VariableElement) value(tier, "value")).getSimpleName().toString();
+		AnnotationMirror mapping = this.mappings(method).get(0);
+		List<String> httpMethods = this.httpMethods(mapping);
+
+		if (httpMethods.isEmpty()) {
+			this.error(controller, method, "Handler methods with @Tier must declare their HTTP methods");
+			return;
+		}
+
+		AnnotationMirror classMapping = this.classMapping(controller);
+		List<String> prefixes = classMapping == null ? List.of("") : paths(classMapping);
+
+		for (String prefix : prefixes) {
+			for (String suffix : paths(mapping)) {
+				String path = join(prefix, suffix);
+				String invalid = invalidSegment(path);
+
+				if (invalid != null) {
+					this.error(controller, method, "Unsupported path pattern " + path + " (segment " + invalid + ")");
+					continue;
+				}
+
+				for (String httpMethod : httpMethods) {
+					Element previous = declared.putIfAbsent(httpMethod + " " + path, method);
+
+					if (previous != null) {
+						this.error(controller, method, "Route " + httpMethod + " " + path + " is already declared by " + previous.getEnclosingElement() + "." + previous);
+						continue;
+					}
+
+					entries.add("new Route(\"" + httpMethod + "\", Constants." + role + "_TIER_ROLES, \"" + escape(path) + "\")");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if a handler method is marked with {@code @PublicRoute}, on any
+	 * method of its hierarchy or on the classes that declare them.
+	 *
+	 * @param controller the controller of the method.
+	 * @param hierarchy  the method of the controller and the methods it overrides.
+	 *
+	 * @return {@code true} if the routes of the method are public.
+	 */
+	private boolean isPublic(TypeElement controller, List<ExecutableElement> hierarchy) {
+		if (annotation(controller, PUBLIC_ROUTE) != null) {
+			return true;
+		}
+
+		for (ExecutableElement method : hierarchy) {
+			if (annotation(method, PUBLIC_ROUTE) != null || annotation(method.getEnclosingElement(), PUBLIC_ROUTE) != null) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Finds the request mapping of the controller, declared on it or inherited
+	 * from its superclasses and interfaces, as Spring does.
+	 *
+	 * @param controller the controller.
+	 *
+	 * @return the request mapping of the controller, or {@code null} if it has none.
+	 */
+	private AnnotationMirror classMapping(TypeElement controller) {
+		List<TypeMirror> pending = new ArrayList<>(List.of(controller.asType()));
+		Set<Element> visited = new HashSet<>();
+
+		while (!pending.isEmpty()) {
+			TypeMirror type = pending.remove(0);
+			Element element = this.processingEnv.getTypeUtils().asElement(type);
+
+			if (!(element instanceof TypeElement) || !visited.add(element)) {
+				continue;
+			}
+
+			AnnotationMirror mapping = annotation(element, REQUEST_MAPPING);
+
+			if (mapping != null) {
+				return mapping;
+			}
+
+			pending.addAll(this.processingEnv.getTypeUtils().directSupertypes(type));
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param method the method to check.
+	 *
+	 * @return the request mapping annotations of the method.
+	 */
+	private List<AnnotationMirror> mappings(ExecutableElement method) {
+		List<AnnotationMirror> mappings = new ArrayList<>();
+
+		for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+			String name = nameOf(mirror);
+
+			if (name.equals(REQUEST_MAPPING) || METHOD_MAPPINGS.containsKey(name)) {
+				mappings.add(mirror);
+			}
+		}
+
+		return mappings;
+	}
+
+	private List<String> httpMethods(AnnotationMirror mapping) {
+		String method = METHOD_MAPPINGS.get(nameOf(mapping));
+
+		if (method != null) {
+			return List.of(method);
+		}
+
+		List<String> methods = new ArrayList<>();
+
+		for (AnnotationValue value : values(mapping, "method")) {
+			methods.add(((VariableElement) value.getValue()).getSimpleName().toString());
+		}
+
+		return methods;
+	}
+
+	private static List<String> paths(AnnotationMirror mapping) {
+		List<String> paths = new ArrayList<>();
+
+		for (AnnotationValue value : values(mapping, "value")) {
+			paths.add((String) value.getValue());
+		}
+
+		for (AnnotationValue value : values(mapping, "path")) {
+			paths.add((String) value.getValue());
+		}
+
+		return paths.isEmpty() ? List.of("") : paths;
+	}
+
+	private static String join(String prefix, String suffix) {
+		String path = prefix.isEmpty() || prefix.startsWith("/") ? prefix : "/" + prefix;
+
+		if (!suffix.isEmpty()) {
+			path = (path.endsWith("/") ? path.substring(0, path.length() - 1) : path)
+			       + (suffix.startsWith("/") ? suffix : "/" + suffix);
+		}
+
+		return path.isEmpty() ? "/" : path;
+	}
+
+	/**
+	 * Finds the first segment of the path that the route authorization can not
+	 * match: only literal segments, variables, {@code *} and a trailing
+	 * {@code **} are supported.
+	 *
+	 * @param path the path to check.
+	 *
+	 * @return the invalid segment, or {@code null} if the path is valid.
+	 */
+	private static String invalidSegment(String path) {
+		String[] segments = path.split("/");
+
+		for (int i = 0; i < segments.length; i++) {
+			String segment = segments[i];
+			boolean variable = segment.startsWith("{") && segment.endsWith("}");
+			boolean wildcard = segment.equals("*") || (segment.equals("**") && i == segments.length - 1);
+
+			if (!variable && !wildcard && (segment.contains("*") || segment.contains("{"))) {
+				return segment;
+			}
+		}
+
+		return null;
+	}
+
+	private void write(List<String> entries) {
+		try {
+			JavaFileObject file = this.processingEnv.getFiler().createSourceFile(PACKAGE + "." + TABLE);
+
+			try (Writer writer = file.openWriter()) {
+				writer.write("package " + PACKAGE + ";\n\n");
+				writer.write("import com.example.restspringtemplate.utils.Constants;\n");
+				writer.write("import javax.annotation.processing.Generated;\n");
+				writer.write("import java.util.List;\n\n");
+				writer.write("/**\n * Routes of the controllers, with the roles allowed by their tier.\n */\n");
+				writer.write("@Generated(\"" + RouteTableProcessor.class.getName() + "\")\n");
+				writer.write("public final class " + TABLE + " {\n");
+				writer.write("\tpublic static final List<Route> ROUTES = List.of(\n");
+				writer.write("\t\t" + String.join(",\n\t\t", entries) + "\n");
+				writer.write("\t);\n\n");
+				writer.write("\tprivate " + TABLE + "() {\n\t}\n");
+				writer.write("}\n");
+			}
+		} catch (IOException e) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the route table: " + e.getMessage());
+		}
+	}
+
+	private void error(Element element, String message) {
+		this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	/**
+	 * Reports an error of a method of a controller, on the controller if the
+	 * method is inherited.
+	 */
+	private void error(TypeElement controller, ExecutableElement method, String message) {
+		if (method.getEnclosingElement().equals(controller)) {
+			this.error(method, message);
+		} else {
+			this.error(controller, message + " (" + method.getEnclosingElement() + "." + method + ")");
+		}
+	}
+
+	private static AnnotationMirror annotation(Element element, String name) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (nameOf(mirror).equals(name)) {
+				return mirror;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Checks if an element is annotated with the given annotation, directly or
+	 * through the annotations of its annotations.
+	 *
+	 * @param element the element to check.
+	 * @param name    the qualified name of the annotation.
+	 * @param visited the annotations already checked, as they may annotate each other.
+	 *
+	 * @return {@code true} if the element is annotated with the annotation.
+	 */
+	private static boolean isAnnotatedWith(Element element, String name, Set<String> visited) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			String annotation = nameOf(mirror);
+
+			if (annotation.equals(name)
+			    || (visited.add(annotation) && isAnnotatedWith(mirror.getAnnotationType().asElement(), name, visited))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static String nameOf(AnnotationMirror mirror) {
+		return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+	}
+
+	private static Object value(AnnotationMirror mirror, String name) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				return entry.getValue().getValue();
+			}
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<? extends AnnotationValue> values(AnnotationMirror mirror, String name) {
+		Object value = value(mirror, name);
+
+		if (value == null) {
+			return List.of();
+		}
+
+		// Single values can be written without braces, but they are still arrays.
+		return value instanceof List<?> list ? (List<? extends AnnotationValue>) list : List.of();
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
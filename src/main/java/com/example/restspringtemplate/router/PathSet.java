@@ -0,0 +1,120 @@
+package com.example.restspringtemplate.router;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set of path patterns compiled to be matched without parsing them again.
+ * <p>
+ * The patterns are either exact paths, which are kept in a hash set, or
+ * prefixes that end with {@code /**}, which are kept in a trie of path
+ * segments. A path matches a prefix if it is the prefix itself or any path
+ * below it. Matching a path costs one hash lookup plus one lookup per segment
+ * of the path, whatever the number of patterns.
+ */
+public final class PathSet {
+	private static final String REMAINING = "/**";
+
+	private final Set<String> exactPaths;
+	private final Node prefixes;
+
+	private PathSet(Set<String> exactPaths, Node prefixes) {
+		this.exactPaths = exactPaths;
+		this.prefixes = prefixes;
+	}
+
+	/**
+	 * Compiles the given patterns.
+	 *
+	 * @param patterns exact paths, or prefixes ending with {@code /**}.
+	 *
+	 * @return the compiled set of patterns.
+	 *
+	 * @throws IllegalArgumentException if a pattern has other wildcards.
+	 */
+	public static PathSet compile(Collection<String> patterns) {
+		Set<String> exactPaths = new HashSet<>();
+		Node prefixes = new Node();
+
+		for (String pattern : patterns) {
+			String prefix = pattern.endsWith(REMAINING)
+			                ? pattern.substring(0, pattern.length() - REMAINING.length())
+			                : null;
+
+			if ((prefix != null ? prefix : pattern).contains("*")) {
+				throw new IllegalArgumentException("Unsupported path pattern: " + pattern);
+			}
+
+			if (prefix == null) {
+				exactPaths.add(pattern);
+				continue;
+			}
+
+			Node node = prefixes;
+
+			for (String segment : prefix.split("/")) {
+				if (!segment.isEmpty()) {
+					node = node.children.computeIfAbsent(segment, s -> new Node());
+				}
+			}
+
+			node.terminal = true;
+		}
+
+		return new PathSet(Set.copyOf(exactPaths), prefixes);
+	}
+
+	/**
+	 * Checks if the given path matches any of the patterns.
+	 *
+	 * @param path the path to check.
+	 *
+	 * @return {@code true} if the path matches, {@code false} otherwise.
+	 */
+	public boolean matches(String path) {
+		if (this.exactPaths.contains(path)) {
+			return true;
+		}
+
+		Node node = this.prefixes;
+		int start = 0;
+
+		while (!node.terminal) {
+			while (start < path.length() && path.charAt(start) == '/') {
+				start++;
+			}
+
+			if (start == path.length()) {
+				return false;
+			}
+
+			int end = path.indexOf('/', start);
+
+			if (end == -1) {
+				end = path.length();
+			}
+
+			node = node.children.get(path.substring(start, end));
+
+			if (node == null) {
+				return false;
+			}
+
+			start = end;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Node of the trie of prefixes. The nodes are only modified while the
+	 * patterns are compiled.
+	 */
+	private static final class Node {
+		private final Map<String, Node> children = new HashMap<>();
+		private boolean terminal;
+	}
+}
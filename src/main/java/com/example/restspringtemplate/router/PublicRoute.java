@@ -0,0 +1,19 @@
+package com.example.restspringtemplate.router;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the handler methods (or all the handler methods of a controller)
+ * whose routes do not belong to any {@link Tier}. Their paths must be
+ * registered as public paths ({@code http.fast-path.public-paths}), or they
+ * will only be available to authenticated users.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface PublicRoute {
+}
@@ -0,0 +1,11 @@
+package com.example.restspringtemplate.router;
+
+/**
+ * Route of the application, as collected from the controllers at compile time.
+ *
+ * @param method       the HTTP method of the route.
+ * @param allowedRoles the mask of the roles allowed to access the route.
+ * @param path         the path pattern of the route.
+ */
+public record Route(String method, int allowedRoles, String path) {
+}
@@ -0,0 +1,28 @@
+package com.example.restspringtemplate.router;
+
+import com.example.restspringtemplate.domain.model.Role;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tier of the routes of a handler method, which defines the roles allowed to
+ * access them (see the {@code *_TIER_ROLES} masks of
+ * {@link com.example.restspringtemplate.utils.Constants}).
+ * <p>
+ * The routes of all the annotated methods are collected at compile time into
+ * the {@code RouteTable} class. Every handler method of a controller must
+ * have a tier, unless it is a {@link PublicRoute}.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Tier {
+	/**
+	 * @return the tier of the routes.
+	 */
+	Role value();
+}
@@ -1,8 +1,11 @@
 package com.example.restspringtemplate.utils;
 
+import com.example.restspringtemplate.domain.model.Role;
 import com.example.restspringtemplate.json.modules.GsonModule;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -27,16 +30,45 @@ public class Constants {
 	public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
 		.setSerializationInclusion(JsonInclude.Include.NON_NULL) // Don't serialize null values
 		.registerModules(new JavaTimeModule(), new GsonModule());
+	public static final ObjectMapper CBOR_MAPPER = new CBORMapper()
+		.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+		.registerModules(new JavaTimeModule(), new GsonModule());
+	public static final ObjectMapper SMILE_MAPPER = new SmileMapper()
+		.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+		.registerModules(new JavaTimeModule(), new GsonModule());
 	public static final String ERROR_JSON_KEY = "error";
 	public static final String DATA_JSON_KEY = "data";
 
+	public static final int BODY_BUFFER_SIZE = 8 * 1024; // 8 KiB
+	public static final int BODY_BUFFER_POOL_SIZE = 256;
+	public static final long DEFAULT_MAX_BODY_SIZE = 1024 * 1024; // 1 MiB
+	public static final long DEFAULT_BODY_SPILL_THRESHOLD = 256 * 1024; // 256 KiB
+
+	public static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024; // 1 KiB
+	public static final int DEFLATER_POOL_SIZE = 64;
+	public static final int RESPONSE_BUFFER_SIZE = 8 * 1024; // 8 KiB
+	public static final int RESPONSE_BUFFER_POOL_SIZE = 256;
+	public static final int DEFAULT_RESPONSE_BUFFER_LIMIT = 64 * 1024; // 64 KiB
+	public static final int STREAM_FLUSH_INTERVAL = 128; // Elements written between flushes of streamed responses
+
 	public static final String JWT_TOKEN_PREFIX = "Bearer ";
 
 	public static final Duration TOKEN_EXPIRATION_DURATION_NORMAL = Duration.ofHours(4);
 	public static final Duration TOKEN_EXPIRATION_DURATION_EXTENDED = Duration.ofDays(7);
+	public static final long DEFAULT_TOKEN_CACHE_SIZE = 10_000;
+	public static final long DEFAULT_USER_CACHE_SIZE = 10_000;
+	public static final int DEFAULT_PASSWORD_QUEUE_CAPACITY = 64;
+	public static final long DEFAULT_EXPECTED_REVOCATIONS = 10_000;
+	public static final double DEFAULT_REVOCATION_FALSE_POSITIVE_RATE = 0.01;
+	public static final long DEFAULT_RATE_LIMIT_KEYS = 100_000;
+	public static final long DEFAULT_LOGIN_ATTEMPTS_PER_ADDRESS = 20; // Per minute
+	public static final long DEFAULT_LOGIN_ATTEMPTS_PER_USERNAME = 5; // Per minute
+	public static final long DEFAULT_LOW_TIER_QUOTA = 6_000; // Per minute (most privileged)
+	public static final long DEFAULT_MEDIUM_TIER_QUOTA = 600; // Per minute
+	public static final long DEFAULT_TOP_TIER_QUOTA = 60; // Per minute (least privileged)
 
 	public static final String[] STRING_ARRAY = new String[0];
-	public static final List<String> LOW_TIER_ROLES = List.of("LOW");
-	public static final List<String> MEDIUM_TIER_ROLES = List.of("LOW", "MEDIUM");
-	public static final List<String> TOP_TIER_ROLES = List.of("LOW", "MEDIUM", "TOP");
+	public static final int LOW_TIER_ROLES = Role.maskOf(Role.LOW); // Masks of Role
+	public static final int MEDIUM_TIER_ROLES = Role.maskOf(Role.LOW, Role.MEDIUM);
+	public static final int TOP_TIER_ROLES = Role.maskOf(Role.LOW, Role.MEDIUM, Role.TOP);
 }
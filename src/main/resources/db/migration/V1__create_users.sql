@@ -0,0 +1,9 @@
+-- Users table as it was before the migrations were added. The existing
+-- databases are baselined at this version, so it only runs on new ones.
+CREATE TABLE users
+(
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NULL,
+    password VARCHAR(255) NULL,
+    PRIMARY KEY (id)
+);
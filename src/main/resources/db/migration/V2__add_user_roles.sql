@@ -0,0 +1,11 @@
+-- Role of each user, stored by name (see Role). The existing users get the
+-- role with the fewest permissions (TOP only reaches the routes of the TOP
+-- tier), and must be promoted explicitly.
+ALTER TABLE users ADD COLUMN role VARCHAR(16) NULL;
+UPDATE users SET role = 'TOP' WHERE role IS NULL;
+ALTER TABLE users MODIFY role VARCHAR(16) NOT NULL;
+
+-- Unique index used to look the users up by username. It fails if there are
+-- repeated usernames, which must be fixed by hand before migrating.
+ALTER TABLE users MODIFY username VARCHAR(255) NOT NULL;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
@@ -3,7 +3,8 @@ package com.example.restspringtemplate;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The tests run without a database, so the schema is not migrated.
+@SpringBootTest(properties = "spring.flyway.enabled=false")
 class RestSpringTemplateApplicationTests {
 
 	@Test
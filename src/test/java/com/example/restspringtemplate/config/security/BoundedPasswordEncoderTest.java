@@ -0,0 +1,95 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.config.properties.PasswordProperties;
+import com.example.restspringtemplate.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+	@Test
+	void completesTheHashesThatHaveStarted() {
+		SlowEncoder delegate = new SlowEncoder(new CountDownLatch(0), 200);
+
+		try (BoundedPasswordEncoder encoder = encoder(delegate, Duration.ofMillis(20))) {
+			assertEquals("hash:secret", encoder.encode("secret"));
+		}
+	}
+
+	@Test
+	void doesNotHashThePasswordsThatWaitedTooLong() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		SlowEncoder delegate = new SlowEncoder(release, 0);
+
+		try (BoundedPasswordEncoder encoder = encoder(delegate, Duration.ofMillis(50))) {
+			// Keeps the only thread of the pool busy until it is released.
+			CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+			delegate.awaitStarted();
+
+			assertThrows(ServiceUnavailableException.class, () -> encoder.encode("second"));
+
+			release.countDown();
+			assertEquals("hash:first", first.get(5, TimeUnit.SECONDS));
+
+			// The abandoned password is never hashed, and the pool is available again.
+			assertEquals("hash:third", encoder.encode("third"));
+			assertEquals(2, delegate.calls.get());
+		}
+	}
+
+	private static BoundedPasswordEncoder encoder(PasswordEncoder delegate, Duration timeout) {
+		PasswordProperties properties = new PasswordProperties();
+		properties.setPoolSize(1);
+		properties.setQueueCapacity(4);
+		properties.setTimeout(timeout);
+		return new BoundedPasswordEncoder(delegate, properties, new SimpleMeterRegistry());
+	}
+
+	/**
+	 * Encoder that waits for a latch and then sleeps, without checking for
+	 * interrupts (as BCrypt does).
+	 */
+	private static final class SlowEncoder implements PasswordEncoder {
+		private final CountDownLatch release;
+		private final long sleepMillis;
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private SlowEncoder(CountDownLatch release, long sleepMillis) {
+			this.release = release;
+			this.sleepMillis = sleepMillis;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			this.calls.incrementAndGet();
+			this.started.countDown();
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.sleepMillis);
+
+			while (this.release.getCount() > 0 || System.nanoTime() < deadline) {
+				Thread.onSpinWait();
+			}
+
+			return "hash:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return this.encode(rawPassword).equals(encodedPassword);
+		}
+
+		private void awaitStarted() throws InterruptedException {
+			assertTrue(this.started.await(5, TimeUnit.SECONDS));
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.domain.model.Role;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.restspringtemplate.utils.Constants.JWT_TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the rotation of the keys of the JWT tokens. The environment
+ * variables are replaced by a map, and the keys with an id are read from a
+ * temporary file.
+ */
+class JWTKeyRingTest {
+	private static final String OLD_SECRET = secret('o');
+	private static final String NEW_SECRET = secret('n');
+
+	@TempDir
+	Path directory;
+
+	private final Map<String, String> environment = new HashMap<>();
+	private Path file;
+	private JWTKeyRing keyRing;
+	private JWTService jwtService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.file = this.directory.resolve("jwt-keys");
+		Files.writeString(this.file, "old:" + OLD_SECRET + "\n");
+
+		this.environment.put("TOKEN_SECRETS_FILE", this.file.toString());
+		this.keyRing = new JWTKeyRing(this.environment::get);
+		this.jwtService = new JWTService(Clock.systemUTC(), this.keyRing);
+	}
+
+	@Test
+	void signsWithTheOnlyKey() {
+		assertEquals("old", this.keyRing.current().signingKeyId());
+		assertEquals("old", this.keyIdOf(this.jwtService.generateTmpToken("ana", Role.LOW)));
+	}
+
+	@Test
+	void verifiesTheTokensOfTheOldKeyAfterTheRotation() throws IOException {
+		String oldToken = this.jwtService.generateTmpToken("ana", Role.LOW);
+
+		this.rotate();
+
+		String newToken = this.jwtService.generateTmpToken("bob", Role.LOW);
+
+		assertEquals("new", this.keyIdOf(newToken));
+		assertEquals("ana", this.jwtService.verify(JWT_TOKEN_PREFIX + oldToken).subject());
+		assertEquals("bob", this.jwtService.verify(JWT_TOKEN_PREFIX + newToken).subject());
+	}
+
+	@Test
+	void rejectsTheTokensOfRemovedKeys() throws IOException {
+		String oldToken = this.jwtService.generateTmpToken("ana", Role.LOW);
+
+		this.rotate();
+		Files.writeString(this.file, "new:" + NEW_SECRET + "\n");
+		this.keyRing.reload();
+
+		assertThrows(JwtException.class, () -> this.jwtService.verify(JWT_TOKEN_PREFIX + oldToken));
+	}
+
+	@Test
+	void reloadsTheKeysWhenTheFileChanges() throws IOException {
+		JWTKeyRing.KeySet keys = this.keyRing.current();
+
+		this.keyRing.reloadIfChanged();
+
+		assertSame(keys, this.keyRing.current());
+
+		this.environment.put("TOKEN_SIGNING_KEY_ID", "new");
+		Files.writeString(this.file, "old:" + OLD_SECRET + "\nnew:" + NEW_SECRET + "\n");
+		this.keyRing.reloadIfChanged();
+
+		assertEquals("new", this.keyRing.current().signingKeyId());
+	}
+
+	@Test
+	void keepsTheCurrentKeysWhenTheNewOnesAreInvalid() throws IOException {
+		String token = this.jwtService.generateTmpToken("ana", Role.LOW);
+		JWTKeyRing.KeySet keys = this.keyRing.current();
+
+		Files.writeString(this.file, "not a key\n");
+		this.keyRing.reloadIfChanged();
+
+		assertSame(keys, this.keyRing.current());
+
+		this.environment.put("TOKEN_SIGNING_KEY_ID", "missing");
+		Files.writeString(this.file, "old:" + OLD_SECRET + "\nnew:" + NEW_SECRET + "\n");
+
+		assertThrows(IllegalStateException.class, this.keyRing::reload);
+		assertSame(keys, this.keyRing.current());
+		assertEquals("ana", this.jwtService.verify(JWT_TOKEN_PREFIX + token).subject());
+	}
+
+	@Test
+	void signsWithTheKeyWithoutIdIfThereAreNoOthers() {
+		JWTKeyRing keyRing = new JWTKeyRing(Map.of("TOKEN_SECRET", OLD_SECRET)::get);
+		JWTService jwtService = new JWTService(Clock.systemUTC(), keyRing);
+
+		String token = jwtService.generateTmpToken("ana", Role.LOW);
+
+		assertNull(this.keyIdOf(token));
+		assertEquals("ana", jwtService.verify(JWT_TOKEN_PREFIX + token).subject());
+	}
+
+	@Test
+	void requiresTheSigningKeyIdWhenThereAreSeveralKeys() {
+		JWTKeyRing keyRing = new JWTKeyRing(Map.of("TOKEN_SECRETS", "old:" + OLD_SECRET + ",new:" + NEW_SECRET)::get);
+
+		assertThrows(IllegalStateException.class, keyRing::current);
+	}
+
+	/**
+	 * Adds the new key to the file and makes it the signing key.
+	 */
+	private void rotate() throws IOException {
+		this.environment.put("TOKEN_SIGNING_KEY_ID", "new");
+		Files.writeString(this.file, "old:" + OLD_SECRET + "\nnew:" + NEW_SECRET + "\n");
+		this.keyRing.reload();
+	}
+
+	/**
+	 * @return the {@code kid} in the header of the token, or {@code null} if it has none.
+	 */
+	private String keyIdOf(String token) {
+		String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+		assertTrue(header.contains("\"alg\":\"HS256\""));
+
+		int start = header.indexOf("\"kid\":\"");
+		return start < 0 ? null : header.substring(start + 7, header.indexOf('"', start + 7));
+	}
+
+	/**
+	 * @return a Base64 secret long enough for HS256.
+	 */
+	private static String secret(char c) {
+		return Base64.getEncoder().encodeToString(String.valueOf(c).repeat(32).getBytes(StandardCharsets.UTF_8));
+	}
+}
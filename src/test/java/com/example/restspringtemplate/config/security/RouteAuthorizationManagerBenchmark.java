@@ -0,0 +1,112 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.domain.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the {@link RouteAuthorizationManager} against the chain of request
+ * matchers that it replaced (one {@code requestMatchers(method, routes)} entry
+ * per route, followed by {@code anyRequest().authenticated()}), with up to
+ * 1000 routes like {@code /api/v1/r{n}/{id}}.
+ * <p>
+ * The chain is evaluated in order, so the first route is its best case, and
+ * the last route and the unregistered ones its worst cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteAuthorizationManagerBenchmark {
+	private static final Supplier<Authentication> AUTHENTICATION = () -> new UsernamePasswordAuthenticationToken(
+		"user", null, Role.LOW.authorities()
+	);
+
+	@Param({"10", "1000"})
+	private int routes;
+
+	@Param({"first", "last", "unregistered"})
+	private String target;
+
+	private RouteAuthorizationManager trie;
+	private RequestMatcherDelegatingAuthorizationManager chain;
+	private MockHttpServletRequest request;
+	private RequestAuthorizationContext context;
+
+	@Setup
+	public void setUp() {
+		RouteAuthorizationManager.Builder trieBuilder = RouteAuthorizationManager.builder();
+		RequestMatcherDelegatingAuthorizationManager.Builder chainBuilder = RequestMatcherDelegatingAuthorizationManager.builder();
+		int[] tiers = {Role.maskOf(Role.LOW), Role.maskOf(Role.LOW, Role.MEDIUM), Role.maskOf(Role.values())};
+
+		for (int i = 0; i < this.routes; i++) {
+			String route = "/api/v1/r" + i + "/{id}";
+			int roles = tiers[i % tiers.length];
+
+			trieBuilder.registerRoutes(HttpMethod.GET, roles, route);
+			chainBuilder.add(
+				new AntPathRequestMatcher(route, HttpMethod.GET.name()),
+				AuthorityAuthorizationManager.hasAnyAuthority(names(roles))
+			);
+		}
+
+		chainBuilder.add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated());
+
+		this.trie = trieBuilder.build();
+		this.chain = chainBuilder.build();
+
+		String path = switch (this.target) {
+			case "first" -> "/api/v1/r0/42";
+			case "last" -> "/api/v1/r" + (this.routes - 1) + "/42";
+			case "unregistered" -> "/api/v1/unknown/42";
+			default -> throw new IllegalArgumentException(this.target);
+		};
+
+		this.request = new MockHttpServletRequest("GET", path);
+		this.request.setServletPath(path);
+		this.context = new RequestAuthorizationContext(this.request);
+	}
+
+	@Benchmark
+	public AuthorizationDecision matcherChain() {
+		return this.chain.check(AUTHENTICATION, this.request);
+	}
+
+	@Benchmark
+	public AuthorizationDecision routeTrie() {
+		return this.trie.check(AUTHENTICATION, this.context);
+	}
+
+	private static String[] names(int roles) {
+		return Arrays.stream(Role.values())
+		             .filter(role -> (roles & role.mask()) != 0)
+		             .map(Role::name)
+		             .toArray(String[]::new);
+	}
+}
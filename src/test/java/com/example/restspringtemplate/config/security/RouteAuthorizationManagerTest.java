@@ -0,0 +1,166 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.domain.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteAuthorizationManagerTest {
+	private static final int LOW = Role.maskOf(Role.LOW);
+	private static final int MEDIUM = Role.maskOf(Role.LOW, Role.MEDIUM);
+	private static final int TOP = Role.maskOf(Role.values());
+
+	@Test
+	void prefersLiteralsOverVariablesOverRemainingWildcards() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/**")
+		                                                             .registerRoutes(HttpMethod.GET, MEDIUM, "/api/users/{id}")
+		                                                             .registerRoutes(HttpMethod.GET, TOP, "/api/users/me")
+		                                                             .build();
+
+		assertEquals(TOP, allowedRoles(manager, "GET", "/api/users/me"));
+		assertEquals(MEDIUM, allowedRoles(manager, "GET", "/api/users/42"));
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/users/42/posts"));
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/users"));
+	}
+
+	@Test
+	void doesNotDependOnTheOrderOfOverlappingRoutes() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, TOP, "/api/users/me")
+		                                                             .registerRoutes(HttpMethod.GET, MEDIUM, "/api/users/*")
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/**")
+		                                                             .build();
+
+		assertEquals(TOP, allowedRoles(manager, "GET", "/api/users/me"));
+		assertEquals(MEDIUM, allowedRoles(manager, "GET", "/api/users/42"));
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/users/42/posts"));
+	}
+
+	@Test
+	void fallsBackToVariablesWhenTheLiteralsDoNotMatch() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, TOP, "/api/users/me/settings")
+		                                                             .registerRoutes(HttpMethod.GET, MEDIUM, "/api/users/{id}/posts")
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/**")
+		                                                             .build();
+
+		assertEquals(MEDIUM, allowedRoles(manager, "GET", "/api/users/me/posts"));
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/users/me/other"));
+	}
+
+	@Test
+	void keepsTheFirstRegistrationOfARoute() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/{id}", "/api/files/**")
+		                                                             .registerRoutes(HttpMethod.GET, TOP, "/api/users/{name}", "/api/files/**")
+		                                                             .registerRoutes(HttpMethod.GET, TOP, "/api/users/*")
+		                                                             .build();
+
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/users/42"));
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/files/a/b"));
+	}
+
+	@Test
+	void registersTheRoutesPerMethod() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, TOP, "/api/users")
+		                                                             .registerRoutes(HttpMethod.POST, LOW, "/api/users")
+		                                                             .build();
+
+		assertEquals(TOP, allowedRoles(manager, "GET", "/api/users"));
+		assertEquals(LOW, allowedRoles(manager, "POST", "/api/users"));
+		assertEquals(0, allowedRoles(manager, "DELETE", "/api/users"));
+	}
+
+	@Test
+	void ignoresRepeatedAndTrailingSlashes() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/{id}")
+		                                                             .build();
+
+		assertEquals(LOW, allowedRoles(manager, "GET", "/api/users/42/"));
+		assertEquals(LOW, allowedRoles(manager, "GET", "//api//users/42"));
+	}
+
+	@Test
+	void doesNotMatchTheUnregisteredRoutes() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/{id}")
+		                                                             .build();
+
+		assertEquals(0, allowedRoles(manager, "GET", "/api/users"));
+		assertEquals(0, allowedRoles(manager, "GET", "/api/users/42/posts"));
+		assertEquals(0, allowedRoles(manager, "GET", "/api/other/42"));
+		assertEquals(0, allowedRoles(manager, "GET", "/"));
+	}
+
+	@Test
+	void onlyRequiresAuthenticationForTheUnregisteredRoutes() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/{id}")
+		                                                             .build();
+
+		assertTrue(check(manager, user(Role.TOP), "/api/other"));
+		assertFalse(check(manager, null, "/api/other"));
+		assertFalse(check(manager, new AnonymousAuthenticationToken("key", "anonymous", Role.LOW.authorities()), "/api/other"));
+	}
+
+	@Test
+	void onlyGrantsTheAllowedRolesForTheRegisteredRoutes() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, MEDIUM, "/api/users/{id}")
+		                                                             .build();
+
+		assertTrue(check(manager, user(Role.LOW), "/api/users/42"));
+		assertTrue(check(manager, user(Role.MEDIUM), "/api/users/42"));
+		assertFalse(check(manager, user(Role.TOP), "/api/users/42"));
+	}
+
+	@Test
+	void includesThePathInfoInThePath() {
+		RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+		                                                             .registerRoutes(HttpMethod.GET, LOW, "/api/users/{id}")
+		                                                             .build();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+		request.setServletPath("/api");
+		request.setPathInfo("/users/42");
+
+		assertEquals(LOW, manager.allowedRoles(request));
+	}
+
+	@Test
+	void rejectsUnsupportedRoutes() {
+		RouteAuthorizationManager.Builder builder = RouteAuthorizationManager.builder();
+
+		assertThrows(IllegalArgumentException.class, () -> builder.registerRoutes(HttpMethod.GET, LOW, "/api/**/users"));
+		assertThrows(IllegalArgumentException.class, () -> builder.registerRoutes(HttpMethod.GET, LOW, "/api/users*"));
+		assertThrows(IllegalArgumentException.class, () -> builder.registerRoutes(HttpMethod.GET, LOW, "/api/{id"));
+		assertThrows(IllegalArgumentException.class, () -> builder.registerRoutes(HttpMethod.GET, 0, "/api/users"));
+	}
+
+	private static int allowedRoles(RouteAuthorizationManager manager, String method, String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setServletPath(path);
+		return manager.allowedRoles(request);
+	}
+
+	private static boolean check(RouteAuthorizationManager manager, Authentication authentication, String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		return manager.check(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+	}
+
+	private static Authentication user(Role role) {
+		return new UsernamePasswordAuthenticationToken("user", null, role.authorities());
+	}
+}
@@ -0,0 +1,166 @@
+package com.example.restspringtemplate.config.security;
+
+import com.example.restspringtemplate.config.properties.TokenCacheProperties;
+import com.example.restspringtemplate.domain.model.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static com.example.restspringtemplate.utils.Constants.JWT_TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenCacheTest {
+	private static final String OLD_SECRET = secret('o');
+	private static final String NEW_SECRET = secret('n');
+
+	@TempDir
+	Path directory;
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+	private Path file;
+	private JWTKeyRing keyRing;
+	private CountingJWTService jwtService;
+	private TokenCache cache;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.file = this.directory.resolve("jwt-keys");
+		Files.writeString(this.file, "old:" + OLD_SECRET + "\n");
+
+		this.keyRing = new JWTKeyRing(Map.of("TOKEN_SECRETS_FILE", this.file.toString())::get);
+		this.jwtService = new CountingJWTService(this.clock, this.keyRing);
+		this.cache = new TokenCache(this.jwtService, this.keyRing, this.clock, new TokenCacheProperties(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void verifiesEachTokenOnce() {
+		String token = this.token("ana");
+
+		assertEquals("ana", this.cache.verify(token).subject());
+		assertEquals("ana", this.cache.verify(token).subject());
+		assertEquals("bob", this.cache.verify(this.token("bob")).subject());
+		assertEquals(2, this.jwtService.verifications);
+	}
+
+	@Test
+	void expiresTheTokensAtTheirExpiration() {
+		// The temporary tokens expire after an hour.
+		String token = this.token("ana");
+		this.cache.verify(token);
+
+		this.clock.advance(Duration.ofHours(1).minusSeconds(1));
+
+		assertEquals("ana", this.cache.verify(token).subject());
+		assertEquals(1, this.jwtService.verifications);
+
+		// The cached entry is not used from the expiration on, and the parser
+		// rejects the token once it is past it.
+		this.clock.advance(Duration.ofSeconds(2));
+
+		assertThrows(ExpiredJwtException.class, () -> this.cache.verify(token));
+		assertThrows(ExpiredJwtException.class, () -> this.cache.verify(token));
+		assertEquals(3, this.jwtService.verifications);
+	}
+
+	@Test
+	void doesNotCacheInvalidTokens() {
+		String token = this.token("ana");
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThrows(JwtException.class, () -> this.cache.verify(tampered));
+		assertThrows(JwtException.class, () -> this.cache.verify(tampered));
+		assertEquals(2, this.jwtService.verifications);
+	}
+
+	@Test
+	void verifiesTheTokensAgainWhenTheKeysAreReloaded() throws IOException {
+		String token = this.token("ana");
+		this.cache.verify(token);
+
+		this.keyRing.reload();
+
+		assertEquals("ana", this.cache.verify(token).subject());
+		assertEquals(2, this.jwtService.verifications);
+
+		this.cache.verify(token);
+
+		assertEquals(2, this.jwtService.verifications);
+
+		// The key of the token is removed.
+		Files.writeString(this.file, "new:" + NEW_SECRET + "\n");
+		this.keyRing.reload();
+
+		assertThrows(JwtException.class, () -> this.cache.verify(token));
+	}
+
+	private String token(String username) {
+		return JWT_TOKEN_PREFIX + this.jwtService.generateTmpToken(username, Role.LOW);
+	}
+
+	/**
+	 * @return a Base64 secret long enough for HS256.
+	 */
+	private static String secret(char c) {
+		return Base64.getEncoder().encodeToString(String.valueOf(c).repeat(32).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Service that counts the tokens it verifies.
+	 */
+	private static final class CountingJWTService extends JWTService {
+		private int verifications;
+
+		private CountingJWTService(Clock clock, JWTKeyRing keyRing) {
+			super(clock, keyRing);
+		}
+
+		@Override
+		public VerifiedToken verify(String token) {
+			this.verifications++;
+			return super.verify(token);
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant instant;
+
+		private MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		private void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+	}
+}
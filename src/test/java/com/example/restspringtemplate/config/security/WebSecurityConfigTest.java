@@ -0,0 +1,50 @@
+package com.example.restspringtemplate.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the public paths go through the security chain without a token,
+ * and that the private ones are refused without it.
+ */
+// The tests run without a database, so the schema is not migrated.
+@SpringBootTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureMockMvc
+class WebSecurityConfigTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void redirectsThePublicPathsToHttps() throws Exception {
+		this.mvc.perform(get("/actuator/health/liveness").servletPath("/actuator/health/liveness"))
+		        .andExpect(status().isFound())
+		        .andExpect(redirectedUrl("https://localhost/actuator/health/liveness"));
+	}
+
+	@Test
+	void permitsThePublicPathsWithoutToken() throws Exception {
+		this.mvc.perform(get("/api/v1/test").servletPath("/api/v1/test").secure(true))
+		        .andExpect(status().isNotFound())
+		        .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+	}
+
+	@Test
+	void requiresATokenForThePrivatePaths() throws Exception {
+		this.mvc.perform(get("/example").servletPath("/example").secure(true))
+		        .andExpect(status().isUnauthorized())
+		        .andExpect(header().string(WWW_AUTHENTICATE, "Bearer"));
+
+		this.mvc.perform(get("/example").servletPath("/example").secure(true).header(AUTHORIZATION, "Basic YWRtaW46YWRtaW4="))
+		        .andExpect(status().isUnauthorized());
+	}
+}
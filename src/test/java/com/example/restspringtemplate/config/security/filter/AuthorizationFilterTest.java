@@ -0,0 +1,195 @@
+package com.example.restspringtemplate.config.security.filter;
+
+import com.example.restspringtemplate.config.properties.Bandwidth;
+import com.example.restspringtemplate.config.properties.FastPathProperties;
+import com.example.restspringtemplate.config.properties.QuotaProperties;
+import com.example.restspringtemplate.config.properties.RevocationProperties;
+import com.example.restspringtemplate.config.properties.TokenCacheProperties;
+import com.example.restspringtemplate.config.security.FastPaths;
+import com.example.restspringtemplate.config.security.JWTKeyRing;
+import com.example.restspringtemplate.config.security.JWTService;
+import com.example.restspringtemplate.config.security.TokenCache;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import com.example.restspringtemplate.config.security.ratelimit.InMemoryRateLimiter;
+import com.example.restspringtemplate.config.security.ratelimit.QuotaService;
+import com.example.restspringtemplate.config.security.revocation.InMemoryRevocationStore;
+import com.example.restspringtemplate.config.security.revocation.TokenRevocationService;
+import com.example.restspringtemplate.domain.model.Role;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
+
+/**
+ * Tests of the filter with the tokens already verified: the token cache is
+ * replaced by one that knows a single valid token.
+ */
+class AuthorizationFilterTest {
+	private static final String VALID_TOKEN = "Bearer valid";
+	private static final Clock CLOCK = Clock.systemUTC();
+
+	private final TokenRevocationService revocationService = new TokenRevocationService(
+		new InMemoryRevocationStore(), CLOCK, new RevocationProperties()
+	);
+	private final VerifiedToken verified = new VerifiedToken("id", "ana", Role.TOP, CLOCK.instant().plusSeconds(3600));
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void rejectsTheRequestsWithoutToken() throws ServletException, IOException {
+		AuthorizationFilter filter = this.filter(quota(1, true));
+
+		for (String token : new String[] {null, "Basic YWRtaW46YWRtaW4="}) {
+			MockHttpServletRequest request = request(token);
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(request, response, chain);
+
+			assertNull(chain.getRequest());
+			assertEquals(401, response.getStatus());
+			assertEquals("Bearer", response.getHeader(WWW_AUTHENTICATE));
+		}
+	}
+
+	@Test
+	void describesTheQuotaWithTheRateLimitHeaders() throws ServletException, IOException {
+		AuthorizationFilter filter = this.filter(quota(2, true));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request(VALID_TOKEN), response, chain);
+
+		assertNotNull(chain.getRequest());
+		assertEquals(200, response.getStatus());
+		assertEquals("2", response.getHeader("RateLimit-Limit"));
+		assertEquals("1", response.getHeader("RateLimit-Remaining"));
+		assertEquals("30", response.getHeader("RateLimit-Reset"));
+		assertNull(response.getHeader(RETRY_AFTER));
+	}
+
+	@Test
+	void rejectsTheRequestsAboveTheQuota() throws ServletException, IOException {
+		AuthorizationFilter filter = this.filter(quota(2, true));
+
+		filter.doFilter(request(VALID_TOKEN), new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(request(VALID_TOKEN), new MockHttpServletResponse(), new MockFilterChain());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request(VALID_TOKEN), response, chain);
+
+		assertNull(chain.getRequest());
+		assertEquals(429, response.getStatus());
+		// One request is refilled every 30 seconds.
+		assertEquals("30", response.getHeader(RETRY_AFTER));
+		assertEquals("2", response.getHeader("RateLimit-Limit"));
+		assertEquals("0", response.getHeader("RateLimit-Remaining"));
+		assertEquals("60", response.getHeader("RateLimit-Reset"));
+	}
+
+	@Test
+	void doesNotDescribeTheQuotaWhenDisabled() throws ServletException, IOException {
+		AuthorizationFilter filter = this.filter(quota(1, false));
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(request(VALID_TOKEN), response, chain);
+
+			assertNotNull(chain.getRequest());
+			assertNull(response.getHeader("RateLimit-Limit"));
+		}
+	}
+
+	@Test
+	void doesNotTakeTheRejectedTokensFromTheQuota() throws ServletException, IOException {
+		AuthorizationFilter filter = this.filter(quota(1, true));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request("Bearer invalid"), response, new MockFilterChain());
+
+		assertEquals(403, response.getStatus());
+		assertNull(response.getHeader("RateLimit-Limit"));
+
+		this.revocationService.revoke(this.verified);
+		response = new MockHttpServletResponse();
+		filter.doFilter(request(VALID_TOKEN), response, new MockFilterChain());
+
+		assertEquals(403, response.getStatus());
+		assertNull(response.getHeader("RateLimit-Limit"));
+	}
+
+	private AuthorizationFilter filter(QuotaService quotaService) {
+		return new AuthorizationFilter(
+			new StubTokenCache(this.verified), this.revocationService, quotaService, new FastPaths(new FastPathProperties())
+		);
+	}
+
+	/**
+	 * @return quotas of the given number of requests per minute for every tier.
+	 */
+	private static QuotaService quota(long capacity, boolean enabled) {
+		QuotaProperties properties = new QuotaProperties();
+		properties.setEnabled(enabled);
+		properties.setTiers(Map.of("TOP", new Bandwidth(capacity, Duration.ofMinutes(1))));
+
+		return new QuotaService(
+			properties,
+			(name, bandwidth, maximumKeys) -> new InMemoryRateLimiter(
+				name, bandwidth.getCapacity(), bandwidth.getPeriod(), maximumKeys, new SimpleMeterRegistry()
+			)
+		);
+	}
+
+	private static MockHttpServletRequest request(String token) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/example");
+		request.setServletPath("/example");
+
+		if (token != null) {
+			request.addHeader(AUTHORIZATION, token);
+		}
+
+		return request;
+	}
+
+	/**
+	 * Cache that only knows {@link #VALID_TOKEN}, and rejects any other token.
+	 */
+	private static final class StubTokenCache extends TokenCache {
+		private final VerifiedToken verified;
+
+		private StubTokenCache(VerifiedToken verified) {
+			super(new JWTService(CLOCK, new JWTKeyRing()), new JWTKeyRing(), CLOCK, new TokenCacheProperties(), new SimpleMeterRegistry());
+			this.verified = verified;
+		}
+
+		@Override
+		public VerifiedToken verify(String token) {
+			if (!VALID_TOKEN.equals(token)) {
+				throw new MalformedJwtException("Invalid token");
+			}
+
+			return this.verified;
+		}
+	}
+}
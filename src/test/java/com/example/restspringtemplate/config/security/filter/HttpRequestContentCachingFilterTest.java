@@ -0,0 +1,140 @@
+package com.example.restspringtemplate.config.security.filter;
+
+import com.example.restspringtemplate.config.properties.FastPathProperties;
+import com.example.restspringtemplate.config.properties.HttpRequestProperties;
+import com.example.restspringtemplate.config.security.FastPaths;
+import com.example.restspringtemplate.net.http.HttpRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the size limits and of the release of the request bodies. The
+ * bodies are spilled to a temporary file, whose deletion shows that the
+ * body has been released.
+ */
+class HttpRequestContentCachingFilterTest {
+	private static final byte[] BODY = "{\"username\":\"user\"}".getBytes();
+
+	private HttpRequestContentCachingFilter filter;
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	void setUp() {
+		HttpRequestProperties properties = new HttpRequestProperties();
+		properties.setMaxBodySize(DataSize.ofBytes(100));
+		properties.setSpillThreshold(DataSize.ofBytes(1));
+
+		this.filter = new HttpRequestContentCachingFilter(properties, new FastPaths(new FastPathProperties()));
+		this.request = new MockHttpServletRequest("POST", "/api/v1/user");
+		this.request.setServletPath("/api/v1/user");
+		this.request.setContent(BODY);
+		this.response = new MockHttpServletResponse();
+	}
+
+	@Test
+	void rejectsDeclaredLengthsAboveTheMaximum() throws ServletException, IOException {
+		this.request.setContent(new byte[101]);
+		FilterChain chain = (req, res) -> {
+			throw new AssertionError("The chain must not be called");
+		};
+
+		this.filter.doFilter(this.request, this.response, chain);
+
+		assertEquals(413, this.response.getStatus());
+	}
+
+	@Test
+	void rejectsUndeclaredLengthsAboveTheMaximum() throws ServletException, IOException {
+		this.request = new MockHttpServletRequest("POST", "/api/v1/user") {
+			@Override
+			public long getContentLengthLong() {
+				return -1;
+			}
+		};
+		this.request.setServletPath("/api/v1/user");
+		this.request.setContent(new byte[101]);
+
+		this.filter.doFilter(this.request, this.response, (req, res) -> req.getInputStream().readAllBytes());
+
+		assertEquals(413, this.response.getStatus());
+	}
+
+	@Test
+	void releasesTheBodyWhenTheChainReturns() throws ServletException, IOException {
+		Set<Path> before = spilledFiles();
+		Set<Path> during = new HashSet<>();
+
+		this.filter.doFilter(this.request, this.response, (req, res) -> {
+			assertArrayEquals(BODY, req.getInputStream().readAllBytes());
+			during.addAll(spilledFiles());
+		});
+
+		during.removeAll(before);
+		assertEquals(1, during.size());
+		assertFalse(Files.exists(during.iterator().next()));
+	}
+
+	@Test
+	void releasesTheBodyOfAsyncRequestsWhenTheyComplete() throws ServletException, IOException {
+		Set<Path> before = spilledFiles();
+		HttpRequest[] wrapper = new HttpRequest[1];
+		this.request.setAsyncSupported(true);
+
+		this.filter.doFilter(this.request, this.response, (req, res) -> {
+			wrapper[0] = assertInstanceOf(HttpRequest.class, req);
+			req.startAsync(req, res);
+		});
+
+		// The body is read after the chain has returned.
+		assertArrayEquals(BODY, wrapper[0].getInputStream().readAllBytes());
+
+		Set<Path> spilled = spilledFiles();
+		spilled.removeAll(before);
+
+		assertEquals(1, spilled.size());
+		assertTrue(Files.exists(spilled.iterator().next()));
+
+		this.request.getAsyncContext().complete();
+
+		assertFalse(Files.exists(spilled.iterator().next()));
+	}
+
+	@Test
+	void doesNotWrapTheRequestsToPublicPaths() throws ServletException, IOException {
+		this.request.setServletPath("/");
+
+		this.filter.doFilter(this.request, this.response, (req, res) -> assertSame(this.request, req));
+
+		assertArrayEquals(BODY, this.request.getInputStream().readAllBytes());
+	}
+
+	/**
+	 * @return the temporary files of the spilled request bodies.
+	 */
+	private static Set<Path> spilledFiles() throws IOException {
+		try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("request-body-"))
+			            .collect(HashSet::new, Set::add, Set::addAll);
+		}
+	}
+}
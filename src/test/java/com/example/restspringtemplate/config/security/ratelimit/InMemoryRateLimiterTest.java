@@ -0,0 +1,117 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the bucket arithmetic, with 3 requests every 3 seconds (one
+ * request each second) and a clock that only moves when told to.
+ */
+class InMemoryRateLimiterTest {
+	private final ManualTicker ticker = new ManualTicker();
+	private final InMemoryRateLimiter limiter = new InMemoryRateLimiter(
+		"test", 3, Duration.ofSeconds(3), 100, new SimpleMeterRegistry(), this.ticker
+	);
+
+	@Test
+	void acceptsAWholeBurstOfTheCapacity() {
+		assertAllowed(this.limiter.tryAcquire("a"), 2, Duration.ofSeconds(1));
+		assertAllowed(this.limiter.tryAcquire("a"), 1, Duration.ofSeconds(2));
+		assertAllowed(this.limiter.tryAcquire("a"), 0, Duration.ofSeconds(3));
+
+		RateLimit rejected = this.limiter.tryAcquire("a");
+
+		assertFalse(rejected.allowed());
+		assertEquals(3, rejected.limit());
+		assertEquals(0, rejected.remaining());
+		assertEquals(Duration.ofSeconds(3), rejected.reset());
+		assertEquals(Duration.ofSeconds(1), rejected.retryAfter());
+	}
+
+	@Test
+	void refillsOneRequestPerInterval() {
+		this.exhaust("a");
+
+		this.ticker.advance(Duration.ofMillis(1500));
+		assertAllowed(this.limiter.tryAcquire("a"), 0, Duration.ofMillis(2500));
+
+		RateLimit rejected = this.limiter.tryAcquire("a");
+
+		assertFalse(rejected.allowed());
+		assertEquals(Duration.ofMillis(500), rejected.retryAfter());
+		assertEquals(1, rejected.retryAfterSeconds());
+		assertEquals(Duration.ofMillis(2500), rejected.reset());
+		assertEquals(3, rejected.resetSeconds());
+	}
+
+	@Test
+	void doesNotAccumulateMoreThanTheCapacity() {
+		this.ticker.advance(Duration.ofHours(1));
+		this.exhaust("a");
+
+		assertFalse(this.limiter.tryAcquire("a").allowed());
+	}
+
+	@Test
+	void idleBucketsAreFullAgainAfterAPeriod() {
+		this.exhaust("a");
+
+		// The bucket may be evicted, which must not change the result.
+		this.ticker.advance(Duration.ofSeconds(3));
+		assertAllowed(this.limiter.tryAcquire("a"), 2, Duration.ofSeconds(1));
+
+		this.ticker.advance(Duration.ofMinutes(10));
+		assertAllowed(this.limiter.tryAcquire("a"), 2, Duration.ofSeconds(1));
+	}
+
+	@Test
+	void keepsABucketPerKey() {
+		this.exhaust("a");
+
+		assertFalse(this.limiter.tryAcquire("a").allowed());
+		assertAllowed(this.limiter.tryAcquire("b"), 2, Duration.ofSeconds(1));
+	}
+
+	@Test
+	void rejectsInvalidBandwidths() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+		assertThrows(IllegalArgumentException.class, () -> new InMemoryRateLimiter("test", 0, Duration.ofSeconds(1), 1, registry));
+		assertThrows(IllegalArgumentException.class, () -> new InMemoryRateLimiter("test", 1, Duration.ZERO, 1, registry));
+	}
+
+	private void exhaust(String key) {
+		for (int i = 0; i < 3; i++) {
+			assertTrue(this.limiter.tryAcquire(key).allowed());
+		}
+	}
+
+	private static void assertAllowed(RateLimit limit, long remaining, Duration reset) {
+		assertTrue(limit.allowed());
+		assertEquals(3, limit.limit());
+		assertEquals(remaining, limit.remaining());
+		assertEquals(reset, limit.reset());
+		assertEquals(Duration.ZERO, limit.retryAfter());
+	}
+
+	private static final class ManualTicker implements Ticker {
+		private long nanos = 1_000_000_000L;
+
+		@Override
+		public long read() {
+			return this.nanos;
+		}
+
+		private void advance(Duration duration) {
+			this.nanos += duration.toNanos();
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.restspringtemplate.config.security.ratelimit;
+
+import com.example.restspringtemplate.config.properties.Bandwidth;
+import com.example.restspringtemplate.config.properties.QuotaProperties;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import com.example.restspringtemplate.domain.model.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuotaServiceTest {
+	private final List<String> created = new ArrayList<>();
+	private final RateLimiterFactory factory = (name, bandwidth, maximumKeys) -> {
+		this.created.add(name);
+		return new InMemoryRateLimiter(name, bandwidth.getCapacity(), bandwidth.getPeriod(), maximumKeys, new SimpleMeterRegistry());
+	};
+
+	@Test
+	void givesTheLargestQuotasToTheMostPrivilegedRoles() {
+		QuotaService service = new QuotaService(new QuotaProperties(), this.factory);
+
+		long low = service.tryAcquire(token("a", Role.LOW)).limit();
+		long medium = service.tryAcquire(token("a", Role.MEDIUM)).limit();
+		long top = service.tryAcquire(token("a", Role.TOP)).limit();
+
+		assertTrue(low > medium && medium > top);
+	}
+
+	@Test
+	void usesTheLimiterOfTheTierOfEachRole() {
+		QuotaService service = new QuotaService(properties(Map.of("LOW", 3L, "MEDIUM", 2L, "TOP", 1L)), this.factory);
+
+		assertEquals(List.of("quota.LOW", "quota.MEDIUM", "quota.TOP"), this.created.stream().sorted().toList());
+
+		// The same user in another tier has another bucket.
+		assertAllowed(service, token("a", Role.TOP), 1);
+		assertAllowed(service, token("a", Role.LOW), 3);
+		assertAllowed(service, token("a", Role.MEDIUM), 2);
+		assertAllowed(service, token("b", Role.TOP), 1);
+	}
+
+	@Test
+	void givesTheRolesWithoutQuotaTheQuotaOfTheLeastPrivilegedTier() {
+		QuotaService service = new QuotaService(properties(Map.of("low", 3L, "TOP", 1L)), this.factory);
+
+		assertEquals(2, this.created.size());
+
+		RateLimit medium = service.tryAcquire(token("a", Role.MEDIUM));
+
+		assertTrue(medium.allowed());
+		assertEquals(1, medium.limit());
+		// It is the limiter of the TOP tier, so the bucket of the user is shared.
+		assertFalse(service.tryAcquire(token("a", Role.TOP)).allowed());
+	}
+
+	@Test
+	void requiresTheQuotaOfTheLeastPrivilegedTier() {
+		QuotaProperties properties = properties(Map.of("LOW", 3L, "MEDIUM", 2L));
+
+		assertThrows(IllegalStateException.class, () -> new QuotaService(properties, this.factory));
+	}
+
+	@Test
+	void rejectsUnknownRoles() {
+		QuotaProperties properties = properties(Map.of("ADMIN", 3L, "TOP", 1L));
+
+		assertThrows(IllegalArgumentException.class, () -> new QuotaService(properties, this.factory));
+	}
+
+	@Test
+	void doesNotLimitTheRequestsWhenDisabled() {
+		QuotaProperties properties = properties(Map.of("TOP", 1L));
+		properties.setEnabled(false);
+		QuotaService service = new QuotaService(properties, this.factory);
+
+		for (Role role : Role.values()) {
+			for (int i = 0; i < 10; i++) {
+				assertSame(RateLimit.UNLIMITED, service.tryAcquire(token("a", role)));
+			}
+		}
+
+		assertTrue(this.created.isEmpty());
+	}
+
+	/**
+	 * Checks that the user can make the given number of requests, and no more.
+	 */
+	private static void assertAllowed(QuotaService service, VerifiedToken token, long capacity) {
+		for (long i = capacity - 1; i >= 0; i--) {
+			RateLimit quota = service.tryAcquire(token);
+
+			assertTrue(quota.allowed());
+			assertEquals(capacity, quota.limit());
+			assertEquals(i, quota.remaining());
+		}
+
+		assertFalse(service.tryAcquire(token).allowed());
+	}
+
+	/**
+	 * @return properties with the given number of requests per minute of each tier.
+	 */
+	private static QuotaProperties properties(Map<String, Long> capacities) {
+		Map<String, Bandwidth> tiers = new LinkedHashMap<>();
+		capacities.forEach((tier, capacity) -> tiers.put(tier, new Bandwidth(capacity, Duration.ofMinutes(1))));
+
+		QuotaProperties properties = new QuotaProperties();
+		properties.setTiers(tiers);
+		return properties;
+	}
+
+	private static VerifiedToken token(String username, Role role) {
+		return new VerifiedToken("id", username, role, null);
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.restspringtemplate.config.security.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+	@Test
+	void neverMissesTheAddedStrings() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("token-" + i);
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("token-" + i));
+		}
+	}
+
+	@Test
+	void keepsTheFalsePositiveRateNearTheConfiguredOne() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("token-" + i);
+		}
+
+		long falsePositives = IntStream.range(0, 100_000)
+		                               .filter(i -> filter.mightContain("other-" + i))
+		                               .count();
+
+		// 1% expected, with some margin for the hash functions.
+		assertTrue(falsePositives < 2_000, falsePositives + " false positives");
+	}
+
+	@Test
+	void emptyFiltersContainNothing() {
+		BloomFilter filter = new BloomFilter(0, 0.01);
+
+		assertFalse(filter.mightContain(""));
+		assertFalse(filter.mightContain("token"));
+	}
+
+	@Test
+	void keepsTheStringsAddedConcurrently() {
+		BloomFilter filter = new BloomFilter(40_000, 0.01);
+		List<CompletableFuture<Void>> writers = new ArrayList<>();
+
+		for (int thread = 0; thread < 4; thread++) {
+			int offset = thread * 10_000;
+			writers.add(CompletableFuture.runAsync(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					filter.add("token-" + (offset + i));
+				}
+			}));
+		}
+
+		writers.forEach(CompletableFuture::join);
+
+		for (int i = 0; i < 40_000; i++) {
+			assertTrue(filter.mightContain("token-" + i));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.restspringtemplate.config.security.revocation;
+
+import com.example.restspringtemplate.config.properties.RevocationProperties;
+import com.example.restspringtemplate.config.security.VerifiedToken;
+import com.example.restspringtemplate.domain.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationServiceTest {
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+	private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+	@Test
+	void rejectsTheTokensRevokedThroughTheService() {
+		TokenRevocationService service = new TokenRevocationService(new InMemoryRevocationStore(), CLOCK, new RevocationProperties());
+
+		service.revoke(token("a"));
+
+		assertTrue(service.isRevoked(token("a")));
+		assertFalse(service.isRevoked(token("b")));
+	}
+
+	@Test
+	void seesTheRevocationsMadeByOtherInstancesInSharedStores() {
+		SharedStore store = new SharedStore();
+		TokenRevocationService service = new TokenRevocationService(store, CLOCK, new RevocationProperties());
+
+		// Revoked by another instance, so the filter of this one never saw it.
+		store.revoke("a", NOW.plusSeconds(60));
+
+		assertTrue(service.isRevoked(token("a")));
+	}
+
+	@Test
+	void forgetsTheExpiredRevocations() {
+		InMemoryRevocationStore store = new InMemoryRevocationStore();
+		TokenRevocationService service = new TokenRevocationService(store, CLOCK, new RevocationProperties());
+
+		service.revoke(new VerifiedToken("a", "ana", Role.LOW, NOW));
+		service.purgeExpired();
+
+		assertFalse(store.isRevoked("a"));
+		assertFalse(service.isRevoked(token("a")));
+	}
+
+	@Test
+	void rejectsTokensWithoutId() {
+		TokenRevocationService service = new TokenRevocationService(new InMemoryRevocationStore(), CLOCK, new RevocationProperties());
+
+		assertThrows(IllegalArgumentException.class, () -> service.revoke(token(null)));
+		assertFalse(service.isRevoked(token(null)));
+	}
+
+	private static VerifiedToken token(String id) {
+		return new VerifiedToken(id, "ana", Role.LOW, NOW.plusSeconds(60));
+	}
+
+	private static final class SharedStore extends InMemoryRevocationStore {
+		@Override
+		public boolean isShared() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.restspringtemplate.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RoleTest {
+	@Test
+	void readsMaskClaims() {
+		for (Role role : Role.values()) {
+			assertEquals(role, Role.fromClaim(role.mask()));
+			assertEquals(role, Role.fromClaim((long) role.mask()));
+		}
+	}
+
+	@Test
+	void readsTheNamesOfOlderTokens() {
+		assertEquals(Role.LOW, Role.fromClaim("LOW"));
+		assertEquals(Role.TOP, Role.fromClaim("TOP"));
+	}
+
+	@Test
+	void rejectsMasksWithoutExactlyOneKnownRole() {
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim(0));
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim(Role.maskOf(Role.LOW, Role.TOP)));
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim(1 << Role.values().length));
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim(-1));
+	}
+
+	@Test
+	void rejectsUnknownClaims() {
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim("ADMIN"));
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim("low"));
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim(null));
+		assertThrows(IllegalArgumentException.class, () -> Role.fromClaim(true));
+	}
+
+	@Test
+	void computesTheMaskOfAuthorities() {
+		assertEquals(Role.maskOf(Role.LOW, Role.TOP), Role.maskOf(List.of(Role.LOW, new SimpleGrantedAuthority("TOP"))));
+		assertEquals(0, Role.maskOf(List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+	}
+}
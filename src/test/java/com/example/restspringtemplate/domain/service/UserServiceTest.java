@@ -0,0 +1,89 @@
+package com.example.restspringtemplate.domain.service;
+
+import com.example.restspringtemplate.config.properties.UserCacheProperties;
+import com.example.restspringtemplate.domain.model.Role;
+import com.example.restspringtemplate.domain.model.User;
+import com.example.restspringtemplate.domain.model.UserCredentials;
+import com.example.restspringtemplate.domain.respository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+	private UserRepository repository;
+	private UserService service;
+
+	@BeforeEach
+	void setUp() {
+		this.repository = mock(UserRepository.class);
+		this.service = new UserService(this.repository, new UserCacheProperties(), new SimpleMeterRegistry());
+
+		when(this.repository.findByUsername("ana")).thenReturn(Optional.of(new UserCredentials("ana", "hash", Role.LOW)));
+		when(this.repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		// Simulates the transaction of the service.
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void evictsTheSavedUsersWhenTheTransactionCommits() {
+		this.service.loadUserByUsername("ana");
+		this.service.save(new User(1L, "ana", "new hash", Role.LOW));
+
+		this.service.loadUserByUsername("ana");
+		verify(this.repository, times(1)).findByUsername("ana");
+
+		this.commit();
+
+		this.service.loadUserByUsername("ana");
+		verify(this.repository, times(2)).findByUsername("ana");
+	}
+
+	@Test
+	void evictsThePreviousUsernameOfRenamedUsers() {
+		when(this.repository.findStoredUsernameById(1L)).thenReturn(Optional.of("ana"));
+
+		this.service.loadUserByUsername("ana");
+		this.service.save(new User(1L, "bob", "hash", Role.LOW));
+		this.commit();
+
+		this.service.loadUserByUsername("ana");
+		verify(this.repository, times(2)).findByUsername("ana");
+	}
+
+	@Test
+	void keepsTheUsersWhenTheTransactionRollsBack() {
+		this.service.loadUserByUsername("ana");
+		this.service.evictUser("ana");
+
+		TransactionSynchronizationManager.getSynchronizations()
+		                                 .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		TransactionSynchronizationManager.clearSynchronization();
+
+		this.service.loadUserByUsername("ana");
+		verify(this.repository, times(1)).findByUsername("ana");
+	}
+
+	private void commit() {
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.restspringtemplate.json.parsers;
+
+import com.google.gson.JsonObject;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.restspringtemplate.utils.Constants.GSON;
+
+/**
+ * Compares the parsing of request bodies with {@link JsonTreeParser} against
+ * the previous path of {@code HttpRequest.body()}, which decoded the body into
+ * a {@link String} and then parsed it with Gson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonTreeParserBenchmark {
+	/**
+	 * Number of fields of the body.
+	 */
+	@Param({"10", "1000"})
+	private int fields;
+
+	private byte[] body;
+
+	@Setup
+	public void setUp() {
+		StringBuilder json = new StringBuilder("{");
+
+		for (int i = 0; i < this.fields; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+
+			json.append("\"field").append(i).append("\":");
+
+			switch (i % 4) {
+				case 0 -> json.append('"').append("value ñ ").append(i).append('"');
+				case 1 -> json.append(i * 31L);
+				case 2 -> json.append(i).append(".25");
+				default -> json.append("[true,null,{\"nested\":").append(i).append("}]");
+			}
+		}
+
+		this.body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public JsonObject decodeToStringThenGson() throws IOException {
+		String json = IOUtils.toString(new InputStreamReader(new ByteArrayInputStream(this.body), StandardCharsets.UTF_8));
+		return GSON.fromJson(json, JsonObject.class);
+	}
+
+	@Benchmark
+	public JsonObject jacksonFromBytes() throws IOException {
+		return JsonTreeParser.parseObject(new ByteArrayInputStream(this.body), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.example.restspringtemplate.utils.Constants.CBOR_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.SMILE_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeneratorJsonWriterTest {
+	private static final String RAW = "{\"id\":1,\"tags\":[\"a\",null],\"score\":2.5}";
+
+	@Test
+	void writesRawJsonVerbatim() throws IOException {
+		assertEquals("{\"raw\":" + RAW + "}", new String(write(OBJECT_MAPPER, RAW)));
+	}
+
+	@Test
+	void convertsRawJsonForTheBinaryFormats() throws IOException {
+		JsonNode expected = OBJECT_MAPPER.readTree("{\"raw\":" + RAW + "}");
+
+		assertEquals(expected, CBOR_MAPPER.readTree(write(CBOR_MAPPER, RAW)));
+		assertEquals(expected, SMILE_MAPPER.readTree(write(SMILE_MAPPER, RAW)));
+	}
+
+	@Test
+	void rejectsInvalidRawJsonForTheBinaryFormats() {
+		assertThrows(IOException.class, () -> write(CBOR_MAPPER, ""));
+		assertThrows(IOException.class, () -> write(CBOR_MAPPER, "{\"id\":"));
+		assertThrows(IOException.class, () -> write(SMILE_MAPPER, "1 2"));
+	}
+
+	/**
+	 * @return the serialized object with a single field of the given raw value.
+	 */
+	private static byte[] write(ObjectMapper mapper, String raw) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (JsonGenerator gen = mapper.createGenerator(out)) {
+			GeneratorJsonWriter writer = new GeneratorJsonWriter(gen);
+			writer.beginObject();
+			writer.name("raw").jsonValue(raw);
+			writer.endObject();
+		}
+
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.restspringtemplate.utils.Constants.GSON;
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the format of the response bodies: the values are serialized as GSON
+ * serializes them, as they were when they were converted to GSON trees.
+ */
+class GsonValueSerializerTest {
+	@Test
+	void serializesByFieldsInsteadOfGetters() throws Exception {
+		assertEquals(
+			"{\"name\":\"ana\",\"visits\":3,\"tags\":[\"a\",\"b\"],\"role\":\"TOP\"}",
+			serialize(new Account("ana", 3, List.of("a", "b"), Role.TOP))
+		);
+	}
+
+	@Test
+	void skipsTransientAndNullFields() throws Exception {
+		Account account = new Account(null, 0, List.of(), null);
+		account.password = "secret";
+
+		assertEquals("{\"visits\":0,\"tags\":[]}", serialize(account));
+	}
+
+	@Test
+	void serializesBeansWithoutGetters() throws Exception {
+		assertEquals("{}", serialize(new Empty()));
+	}
+
+	@Test
+	void keepsTheNumbersAndGsonElements() throws Exception {
+		JsonObject extra = new JsonObject();
+		extra.addProperty("flag", true);
+
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("decimal", new BigDecimal("12345678901234567890.000001"));
+		values.put("double", 1.0);
+		values.put("extra", extra);
+		values.put("nested", new Account("bob", 1, List.of(), Role.LOW));
+
+		assertEquals(
+			"{\"decimal\":12345678901234567890.000001,\"double\":1.0,\"extra\":{\"flag\":true},"
+			+ "\"nested\":{\"name\":\"bob\",\"visits\":1,\"tags\":[],\"role\":\"LOW\"}}",
+			serialize(values)
+		);
+	}
+
+	@Test
+	void matchesTheSerializationOfGsonTrees() throws Exception {
+		Object[] values = {
+			new Account("ana", 3, List.of("a"), Role.TOP),
+			List.of(1, 2.5, "three"),
+			Map.of("key", new Empty()),
+			"text",
+			42L
+		};
+
+		for (Object value : values) {
+			assertEquals(OBJECT_MAPPER.writeValueAsString(GSON.toJsonTree(value)), serialize(value));
+		}
+	}
+
+	@Test
+	void serializesNullAsJsonNull() throws Exception {
+		assertEquals("null", serialize(null));
+	}
+
+	private static String serialize(Object value) throws Exception {
+		return OBJECT_MAPPER.writeValueAsString(GsonValue.of(value));
+	}
+
+	private enum Role {
+		LOW, TOP
+	}
+
+	@SuppressWarnings("unused")
+	private static final class Account {
+		private final String name;
+		private final int visits;
+		private final List<String> tags;
+		private final Role role;
+		private transient String password;
+
+		private Account(String name, int visits, List<String> tags, Role role) {
+			this.name = name;
+			this.visits = visits;
+			this.tags = tags;
+			this.role = role;
+		}
+
+		// Not serialized, as GSON does not use the getters.
+		public String getDisplayName() {
+			return "@" + this.name;
+		}
+	}
+
+	private static final class Empty {
+	}
+}
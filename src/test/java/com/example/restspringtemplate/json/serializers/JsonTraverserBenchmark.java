@@ -0,0 +1,135 @@
+package com.example.restspringtemplate.json.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+
+/**
+ * Compares the iterative {@link JsonTraverser} against the previous recursive
+ * traversal, which wrote each primitive with {@link JsonGenerator#writeObject(Object)}
+ * (looking up its serializer every time), over small, wide and deep documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonTraverserBenchmark {
+	@Param({"small", "wide", "deep"})
+	private String shape;
+
+	private JsonElement document;
+
+	@Setup
+	public void setUp() {
+		this.document = switch (this.shape) {
+			case "small" -> object(10);
+			case "wide" -> {
+				JsonArray array = new JsonArray();
+
+				for (int i = 0; i < 1000; i++) {
+					array.add(object(10));
+				}
+
+				yield array;
+			}
+			case "deep" -> {
+				// Deep enough to be realistic for the recursive traversal, which
+				// could overflow the stack with much deeper documents.
+				JsonObject root = object(2);
+				JsonObject current = root;
+
+				for (int i = 0; i < 500; i++) {
+					JsonObject child = object(2);
+					current.add("child", child);
+					current = child;
+				}
+
+				yield root;
+			}
+			default -> throw new IllegalArgumentException(this.shape);
+		};
+	}
+
+	@Benchmark
+	public void recursiveWithWriteObject() throws IOException {
+		try (JsonGenerator gen = generator()) {
+			traverseRecursively(this.document, gen);
+		}
+	}
+
+	@Benchmark
+	public void iterative() throws IOException {
+		try (JsonGenerator gen = generator()) {
+			JsonTraverser.traverseElement(this.document, gen);
+		}
+	}
+
+	private static JsonGenerator generator() throws IOException {
+		return OBJECT_MAPPER.getFactory().createGenerator(OutputStream.nullOutputStream());
+	}
+
+	private static JsonObject object(int fields) {
+		JsonObject object = new JsonObject();
+
+		for (int i = 0; i < fields; i++) {
+			switch (i % 4) {
+				case 0 -> object.addProperty("string" + i, "value " + i);
+				case 1 -> object.addProperty("long" + i, i * 31L);
+				case 2 -> object.addProperty("decimal" + i, new LazilyParsedNumber(i + ".25"));
+				default -> object.addProperty("boolean" + i, i % 2 == 0);
+			}
+		}
+
+		return object;
+	}
+
+	/**
+	 * Traversal used before {@link JsonTraverser} was made iterative.
+	 */
+	private static void traverseRecursively(JsonElement element, JsonGenerator gen) throws IOException {
+		if (element.isJsonPrimitive()) {
+			gen.writeObject(element.getAsJsonPrimitive());
+		} else if (element.isJsonObject()) {
+			gen.writeStartObject();
+
+			for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+				gen.writeFieldName(entry.getKey());
+				traverseRecursively(entry.getValue(), gen);
+			}
+
+			gen.writeEndObject();
+		} else if (element.isJsonArray()) {
+			gen.writeStartArray();
+
+			for (JsonElement child : element.getAsJsonArray()) {
+				traverseRecursively(child, gen);
+			}
+
+			gen.writeEndArray();
+		} else {
+			gen.writeNull();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.restspringtemplate.net.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ByteArrayPoolTest {
+	@Test
+	void allocatesArraysWhenEmpty() {
+		ByteArrayPool pool = new ByteArrayPool(16, 2);
+
+		byte[] first = pool.acquire();
+		byte[] second = pool.acquire();
+
+		assertEquals(16, first.length);
+		assertNotSame(first, second);
+	}
+
+	@Test
+	void handsOutTheReleasedArrays() {
+		ByteArrayPool pool = new ByteArrayPool(16, 2);
+		byte[] buffer = pool.acquire();
+
+		pool.release(buffer);
+
+		assertSame(buffer, pool.acquire());
+	}
+
+	@Test
+	void dropsTheArraysReleasedWhenFull() {
+		ByteArrayPool pool = new ByteArrayPool(16, 1);
+		byte[] kept = new byte[16];
+		byte[] dropped = new byte[16];
+
+		pool.release(kept);
+		pool.release(dropped);
+
+		assertSame(kept, pool.acquire());
+		assertNotSame(dropped, pool.acquire());
+	}
+
+	@Test
+	void ignoresArraysOfOtherSizes() {
+		ByteArrayPool pool = new ByteArrayPool(16, 1);
+		byte[] foreign = new byte[32];
+
+		pool.release(foreign);
+		pool.release(null);
+
+		assertEquals(16, pool.acquire().length);
+	}
+}
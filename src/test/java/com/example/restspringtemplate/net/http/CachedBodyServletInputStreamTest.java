@@ -0,0 +1,189 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.net.http.HttpRequest.CachedBodyServletInputStream;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedBodyServletInputStreamTest {
+	private static final byte[] BODY = {1, 2, 3, 4, 5};
+
+	@Test
+	void readsSingleBytes() {
+		CachedBodyServletInputStream in = stream(new byte[] {1, (byte) 0xFF});
+
+		assertEquals(1, in.read());
+		assertEquals(0xFF, in.read());
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	void readsIntoTheGivenRange() {
+		CachedBodyServletInputStream in = stream(BODY);
+		byte[] b = new byte[8];
+
+		assertEquals(3, in.read(b, 2, 3));
+		assertArrayEquals(new byte[] {0, 0, 1, 2, 3, 0, 0, 0}, b);
+		assertEquals(2, in.read(b, 0, 8));
+		assertEquals(-1, in.read(b, 0, 8));
+		assertEquals(0, in.read(b, 0, 0));
+	}
+
+	@Test
+	void rejectsInvalidRanges() {
+		CachedBodyServletInputStream in = stream(BODY);
+
+		assertThrows(IndexOutOfBoundsException.class, () -> in.read(new byte[4], 2, 3));
+		assertThrows(IndexOutOfBoundsException.class, () -> in.read(new byte[4], -1, 1));
+	}
+
+	@Test
+	void readsTheRemainingBytes() {
+		CachedBodyServletInputStream in = stream(BODY);
+
+		in.read();
+
+		assertEquals(4, in.available());
+		assertArrayEquals(new byte[] {2, 3, 4, 5}, in.readAllBytes());
+		assertEquals(0, in.available());
+		assertTrue(in.isFinished());
+	}
+
+	@Test
+	void skipsUpToTheEnd() {
+		CachedBodyServletInputStream in = stream(BODY);
+
+		assertEquals(0, in.skip(-1));
+		assertEquals(2, in.skip(2));
+		assertEquals(3, in.read());
+		assertEquals(2, in.skip(10));
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	void notifiesTheListenerOfTheDataAndOfItsEnd() {
+		CachedBodyServletInputStream in = stream(BODY);
+		RecordingListener listener = new RecordingListener(in);
+
+		assertTrue(in.isReady());
+		in.setReadListener(listener);
+
+		assertEquals(List.of("onDataAvailable", "onAllDataRead"), listener.events);
+		assertArrayEquals(BODY, listener.read);
+	}
+
+	@Test
+	void notifiesTheEndOfEmptyBodies() {
+		CachedBodyServletInputStream in = stream(new byte[0]);
+		RecordingListener listener = new RecordingListener(in);
+
+		in.setReadListener(listener);
+
+		assertEquals(List.of("onAllDataRead"), listener.events);
+	}
+
+	@Test
+	void doesNotNotifyTheEndOfBodiesLeftUnread() {
+		CachedBodyServletInputStream in = stream(BODY);
+		List<String> events = new ArrayList<>();
+
+		in.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() {
+				events.add("onDataAvailable");
+			}
+
+			@Override
+			public void onAllDataRead() {
+				events.add("onAllDataRead");
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				events.add("onError");
+			}
+		});
+
+		assertEquals(List.of("onDataAvailable"), events);
+		assertFalse(in.isFinished());
+	}
+
+	@Test
+	void passesTheErrorsOfTheListenerToIt() {
+		CachedBodyServletInputStream in = stream(BODY);
+		IOException failure = new IOException("The body could not be handled");
+		Throwable[] error = new Throwable[1];
+
+		in.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				throw failure;
+			}
+
+			@Override
+			public void onAllDataRead() {
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				error[0] = t;
+			}
+		});
+
+		assertSame(failure, error[0]);
+	}
+
+	@Test
+	void acceptsASingleListener() {
+		CachedBodyServletInputStream in = stream(BODY);
+		in.setReadListener(new RecordingListener(in));
+
+		assertThrows(NullPointerException.class, () -> in.setReadListener(null));
+		assertThrows(IllegalStateException.class, () -> in.setReadListener(new RecordingListener(in)));
+	}
+
+	private static CachedBodyServletInputStream stream(byte[] body) {
+		return new CachedBodyServletInputStream(ByteBuffer.wrap(body).asReadOnlyBuffer());
+	}
+
+	/**
+	 * Listener that reads the whole body when notified, and records the
+	 * notifications it receives.
+	 */
+	private static final class RecordingListener implements ReadListener {
+		private final CachedBodyServletInputStream in;
+		private final List<String> events = new ArrayList<>();
+		private byte[] read;
+
+		private RecordingListener(CachedBodyServletInputStream in) {
+			this.in = in;
+		}
+
+		@Override
+		public void onDataAvailable() {
+			this.events.add("onDataAvailable");
+			this.read = this.in.readAllBytes();
+		}
+
+		@Override
+		public void onAllDataRead() {
+			this.events.add("onAllDataRead");
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			this.events.add("onError");
+		}
+	}
+}
@@ -0,0 +1,312 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.exceptions.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.restspringtemplate.net.http.CachedBody.POOL;
+import static com.example.restspringtemplate.utils.Constants.BODY_BUFFER_POOL_SIZE;
+import static com.example.restspringtemplate.utils.Constants.BODY_BUFFER_SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of how the bodies are read, bounded, spilled and released. The
+ * spilled bodies are found by listing the temporary directory.
+ */
+class CachedBodyTest {
+	private static final long NO_SPILL = Long.MAX_VALUE;
+
+	@Test
+	void readsSmallBodies() throws IOException {
+		byte[] content = bytes(100);
+
+		CachedBody body = CachedBody.read(new ByteArrayInputStream(content), content.length, 1000, NO_SPILL);
+
+		assertEquals(100, body.length());
+		assertArrayEquals(content, bytesOf(body));
+		body.release();
+	}
+
+	@Test
+	void readsBodiesOfUnknownLength() throws IOException {
+		byte[] content = bytes(3 * BODY_BUFFER_SIZE + 1);
+
+		CachedBody body = CachedBody.read(new ByteArrayInputStream(content), -1, content.length, NO_SPILL);
+
+		assertArrayEquals(content, bytesOf(body));
+		body.release();
+	}
+
+	@Test
+	void readsBodiesLargerThanThePooledArrays() throws IOException {
+		byte[] content = bytes(3 * BODY_BUFFER_SIZE + 1);
+
+		CachedBody body = CachedBody.read(new ByteArrayInputStream(content), content.length, content.length, NO_SPILL);
+
+		assertArrayEquals(content, bytesOf(body));
+		body.release();
+	}
+
+	@Test
+	void rejectsDeclaredLengthsAboveTheMaximumWithoutReading() {
+		ByteArrayInputStream in = new ByteArrayInputStream(bytes(101));
+
+		assertThrows(PayloadTooLargeException.class, () -> CachedBody.read(in, 101, 100, NO_SPILL));
+		assertEquals(101, in.available());
+	}
+
+	@Test
+	void rejectsUndeclaredLengthsAboveTheMaximum() {
+		// Below and above the size of the pooled arrays.
+		assertThrows(PayloadTooLargeException.class, () -> CachedBody.read(new ByteArrayInputStream(bytes(101)), -1, 100, NO_SPILL));
+		assertThrows(
+			PayloadTooLargeException.class,
+			() -> CachedBody.read(new ByteArrayInputStream(bytes(3 * BODY_BUFFER_SIZE)), -1, 2 * BODY_BUFFER_SIZE, NO_SPILL)
+		);
+	}
+
+	@Test
+	void acceptsBodiesOfTheMaximumSize() throws IOException {
+		byte[] content = bytes(2 * BODY_BUFFER_SIZE);
+
+		CachedBody body = CachedBody.read(new ByteArrayInputStream(content), -1, content.length, NO_SPILL);
+
+		assertEquals(content.length, body.length());
+		body.release();
+	}
+
+	@Test
+	void returnsThePooledArrayWhenReleased() throws IOException {
+		List<byte[]> drained = drainPool();
+
+		try {
+			byte[] content = bytes(100);
+			CachedBody.read(new ByteArrayInputStream(content), content.length, 1000, NO_SPILL).release();
+
+			// The pool was empty, so it can only hand out the array of the body.
+			byte[] next = POOL.acquire();
+			assertArrayEquals(content, Arrays.copyOf(next, content.length));
+			POOL.release(next);
+		} finally {
+			drained.forEach(POOL::release);
+		}
+	}
+
+	@Test
+	void returnsThePooledArrayWhenTheBodyIsRejected() throws IOException {
+		List<byte[]> drained = drainPool();
+
+		try {
+			byte[] content = bytes(101);
+			assertThrows(PayloadTooLargeException.class, () -> CachedBody.read(new ByteArrayInputStream(content), -1, 100, NO_SPILL));
+
+			byte[] next = POOL.acquire();
+			assertArrayEquals(content, Arrays.copyOf(next, content.length));
+			POOL.release(next);
+		} finally {
+			drained.forEach(POOL::release);
+		}
+	}
+
+	@Test
+	void releasesTheArrayOfFailedReads() {
+		List<byte[]> drained = drainPool();
+
+		try {
+			assertThrows(IOException.class, () -> CachedBody.read(failing(bytes(100)), -1, 1000, NO_SPILL));
+
+			byte[] next = POOL.acquire();
+			assertArrayEquals(bytes(100), Arrays.copyOf(next, 100));
+			POOL.release(next);
+		} finally {
+			drained.forEach(POOL::release);
+		}
+	}
+
+	@Test
+	void keepsBodiesBelowTheSpillThresholdInMemory() throws IOException {
+		Set<Path> before = spilledFiles();
+		byte[] content = bytes(10_000);
+
+		CachedBody body = CachedBody.read(new ByteArrayInputStream(content), -1, 100_000, 10_000);
+
+		assertArrayEquals(content, bytesOf(body));
+		assertEquals(before, spilledFiles());
+		body.release();
+	}
+
+	@Test
+	void spillsDeclaredLengthsAboveTheThreshold() throws IOException {
+		Set<Path> before = spilledFiles();
+		byte[] content = bytes(10_001);
+
+		CachedBody body = CachedBody.read(new ByteArrayInputStream(content), content.length, 100_000, 10_000);
+		Path file = newFile(before);
+
+		assertArrayEquals(content, bytesOf(body));
+		assertEquals(content.length, Files.size(file));
+
+		body.release();
+
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	void spillsUndeclaredLengthsAboveTheThreshold() throws IOException {
+		// Thresholds that are not a power of two times the array size, and
+		// thresholds below the size of the pooled arrays.
+		for (int threshold : new int[] {10_000, 20_000, 100}) {
+			Set<Path> before = spilledFiles();
+			byte[] content = bytes(threshold + 2000);
+
+			CachedBody body = CachedBody.read(new ByteArrayInputStream(content), -1, 100_000, threshold);
+			Path file = newFile(before);
+
+			assertArrayEquals(content, bytesOf(body));
+			assertEquals(content.length, body.length());
+
+			body.release();
+
+			assertFalse(Files.exists(file));
+		}
+	}
+
+	@Test
+	void rejectsSpilledBodiesAboveTheMaximum() throws IOException {
+		Set<Path> before = spilledFiles();
+		byte[] content = bytes(50_000);
+
+		assertThrows(PayloadTooLargeException.class, () -> CachedBody.read(new ByteArrayInputStream(content), -1, 40_000, 10_000));
+		assertThrows(PayloadTooLargeException.class, () -> CachedBody.read(new ByteArrayInputStream(content), 50_000, 40_000, 10_000));
+		assertEquals(before, spilledFiles());
+	}
+
+	@Test
+	void deletesTheFileOfFailedReads() throws IOException {
+		Set<Path> before = spilledFiles();
+
+		assertThrows(IOException.class, () -> CachedBody.read(failing(bytes(20_000)), -1, 100_000, 10_000));
+		assertEquals(before, spilledFiles());
+	}
+
+	@Test
+	void returnsThePooledArrayOfSpilledBodies() throws IOException {
+		List<byte[]> drained = drainPool();
+
+		try {
+			// The first bytes are read into a pooled array before spilling, and
+			// the rest is copied to the file through another pooled array.
+			byte[] content = bytes(BODY_BUFFER_SIZE + 1);
+			CachedBody.read(new ByteArrayInputStream(content), -1, 100_000, 100).release();
+
+			byte[] first = POOL.acquire();
+			byte[] second = POOL.acquire();
+			byte[] head = Arrays.copyOf(content, 100);
+
+			assertTrue(
+				Arrays.equals(head, Arrays.copyOf(first, 100)) || Arrays.equals(head, Arrays.copyOf(second, 100))
+			);
+			POOL.release(first);
+			POOL.release(second);
+		} finally {
+			drained.forEach(POOL::release);
+		}
+	}
+
+	/**
+	 * @return bytes that differ from the zeros of newly allocated arrays.
+	 */
+	static byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+
+		for (int i = 0; i < length; i++) {
+			bytes[i] = (byte) (i % 251 + 1);
+		}
+
+		return bytes;
+	}
+
+	static byte[] bytesOf(CachedBody body) {
+		ByteBuffer content = body.content();
+		byte[] bytes = new byte[content.remaining()];
+		content.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * @return a stream that fails after returning the given bytes.
+	 */
+	static InputStream failing(byte[] content) {
+		return new InputStream() {
+			private final ByteArrayInputStream in = new ByteArrayInputStream(content);
+
+			@Override
+			public int read() throws IOException {
+				byte[] b = new byte[1];
+				return this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (this.in.available() == 0) {
+					throw new IOException("The connection was reset");
+				}
+
+				return this.in.read(b, off, len);
+			}
+		};
+	}
+
+	/**
+	 * @return the temporary files of the spilled request bodies.
+	 */
+	static Set<Path> spilledFiles() throws IOException {
+		try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("request-body-"))
+			            .collect(Collectors.toSet());
+		}
+	}
+
+	/**
+	 * @return the only temporary file created since the given ones were listed.
+	 */
+	private static Path newFile(Set<Path> before) throws IOException {
+		Set<Path> files = spilledFiles();
+		files.removeAll(before);
+
+		assertEquals(1, files.size());
+		return files.iterator().next();
+	}
+
+	/**
+	 * Takes every array from the pool, so that the next array released is the
+	 * only one it holds.
+	 *
+	 * @return the arrays taken, to be released at the end of the test.
+	 */
+	private static List<byte[]> drainPool() {
+		List<byte[]> drained = new ArrayList<>();
+
+		for (int i = 0; i < BODY_BUFFER_POOL_SIZE; i++) {
+			drained.add(POOL.acquire());
+		}
+
+		return drained;
+	}
+}
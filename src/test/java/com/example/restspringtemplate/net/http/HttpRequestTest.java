@@ -0,0 +1,122 @@
+package com.example.restspringtemplate.net.http;
+
+import com.google.gson.JsonObject;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests of when the body of the wrapped request is read and parsed.
+ */
+class HttpRequestTest {
+	private static final byte[] BODY = "{\"username\":\"user\"}".getBytes(StandardCharsets.UTF_8);
+
+	private HttpRequest request;
+
+	@AfterEach
+	void tearDown() {
+		if (this.request != null) {
+			this.request.release();
+		}
+	}
+
+	@Test
+	void doesNotReadTheBodyUntilItIsNeeded() throws IOException {
+		CountingRequest wrapped = new CountingRequest("POST", BODY);
+		this.request = new HttpRequest(wrapped);
+
+		assertEquals(0, wrapped.reads);
+
+		this.request.body();
+
+		assertEquals(1, wrapped.reads);
+	}
+
+	@Test
+	void parsesTheBodyOnce() throws IOException {
+		CountingRequest wrapped = new CountingRequest("POST", BODY);
+		this.request = new HttpRequest(wrapped);
+
+		JsonObject body = this.request.body();
+
+		assertEquals("user", body.get("username").getAsString());
+		assertSame(body, this.request.body());
+		assertEquals(1, wrapped.reads);
+	}
+
+	@Test
+	void readsTheBodyOnceForEveryStream() throws IOException {
+		CountingRequest wrapped = new CountingRequest("POST", BODY);
+		this.request = new HttpRequest(wrapped);
+
+		assertArrayEquals(BODY, this.request.getInputStream().readAllBytes());
+		assertArrayEquals(BODY, this.request.getInputStream().readAllBytes());
+		assertEquals("user", this.request.body().get("username").getAsString());
+		assertEquals(new String(BODY, StandardCharsets.UTF_8), this.request.getReader().readLine());
+		assertEquals(1, wrapped.reads);
+	}
+
+	@Test
+	void neverReadsTheBodyOfBodylessMethods() throws IOException {
+		CountingRequest wrapped = new CountingRequest("GET", BODY);
+		this.request = new HttpRequest(wrapped);
+
+		assertEquals(-1, this.request.getInputStream().read());
+		assertNull(this.request.body());
+		assertEquals(0, wrapped.reads);
+	}
+
+	@Test
+	void neverReadsEmptyBodies() throws IOException {
+		CountingRequest wrapped = new CountingRequest("POST", new byte[0]);
+		this.request = new HttpRequest(wrapped);
+
+		assertNull(this.request.body());
+		assertEquals(0, wrapped.reads);
+	}
+
+	@Test
+	void decodesTheDeclaredCharset() throws IOException {
+		CountingRequest wrapped = new CountingRequest("POST", "{\"name\":\"café\"}".getBytes(StandardCharsets.ISO_8859_1));
+		wrapped.setCharacterEncoding("ISO-8859-1");
+		this.request = new HttpRequest(wrapped);
+
+		assertEquals("café", this.request.body().get("name").getAsString());
+	}
+
+	@Test
+	void reusesTheWrapperOfTheRequest() {
+		MockHttpServletRequest wrapped = new MockHttpServletRequest("POST", "/login");
+		this.request = new HttpRequest(wrapped);
+
+		assertSame(this.request, HttpRequest.from(this.request));
+		assertSame(HttpRequest.from(wrapped), HttpRequest.from(wrapped));
+	}
+
+	/**
+	 * Request that counts how many times its input stream is requested.
+	 */
+	private static final class CountingRequest extends MockHttpServletRequest {
+		private int reads;
+
+		private CountingRequest(String method, byte[] content) {
+			super(method, "/");
+			this.setContent(content);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			this.reads++;
+			return super.getInputStream();
+		}
+	}
+}
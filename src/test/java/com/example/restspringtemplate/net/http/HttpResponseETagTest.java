@@ -0,0 +1,263 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.config.properties.HttpResponseProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+
+/**
+ * Tests of the conditional {@code GET} requests: the tags of the full
+ * responses, and the {@link HttpStatus#NOT_MODIFIED} responses that replace
+ * them.
+ */
+class HttpResponseETagTest {
+	private static final Map<String, Object> SMALL = Map.of("id", 1, "name", "user");
+	private static final String LARGE = "a".repeat(10_000);
+
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	void setUp() {
+		HttpResponseProperties properties = new HttpResponseProperties();
+		properties.getCompression().setMinSize(DataSize.ofBytes(1024));
+
+		this.request = new MockHttpServletRequest("GET", "/api/v1/users");
+		this.request.setServletPath("/api/v1/users");
+		new ResponseCompression(properties, new SimpleMeterRegistry()).setServletContext(this.request.getServletContext());
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void computesTheTagOfTheBody() throws IOException {
+		MockHttpServletResponse first = this.sendComputed(SMALL);
+		MockHttpServletResponse second = this.sendComputed(SMALL);
+		MockHttpServletResponse other = this.sendComputed(Map.of("id", 2));
+
+		assertEquals(200, first.getStatus());
+		assertNotNull(first.getHeader(ETAG));
+		assertEquals(first.getHeader(ETAG), second.getHeader(ETAG));
+		assertNotEquals(first.getHeader(ETAG), other.getHeader(ETAG));
+	}
+
+	@Test
+	void answersMatchingTagsWithNotModified() throws IOException {
+		String eTag = this.sendComputed(SMALL).getHeader(ETAG);
+		this.request.addHeader(IF_NONE_MATCH, eTag);
+
+		MockHttpServletResponse response = this.sendComputed(SMALL);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(eTag, response.getHeader(ETAG));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void answersOtherTagsWithTheBody() throws IOException {
+		this.request.addHeader(IF_NONE_MATCH, "\"other\"");
+
+		MockHttpServletResponse response = this.sendComputed(SMALL);
+
+		assertEquals(200, response.getStatus());
+		assertNotEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void comparesTheTagsWeakly() throws IOException {
+		String eTag = this.sendComputed(SMALL).getHeader(ETAG);
+		this.request.addHeader(IF_NONE_MATCH, "\"other\", W/" + eTag);
+
+		assertEquals(304, this.sendComputed(SMALL).getStatus());
+	}
+
+	@Test
+	void answersTheWildcardWithNotModified() throws IOException {
+		this.request.addHeader(IF_NONE_MATCH, "*");
+
+		assertEquals(304, this.sendComputed(SMALL).getStatus());
+		assertEquals(304, this.sendSupplied("v1", SMALL).getStatus());
+	}
+
+	@Test
+	void onlyAnswersGetAndHeadWithNotModified() throws IOException {
+		this.request.addHeader(IF_NONE_MATCH, "*");
+		this.request.setMethod("POST");
+
+		assertEquals(200, this.sendComputed(SMALL).getStatus());
+
+		this.request.setMethod("HEAD");
+
+		assertEquals(304, this.sendComputed(SMALL).getStatus());
+	}
+
+	@Test
+	void doesNotTagErrors() throws IOException {
+		this.request.addHeader(IF_NONE_MATCH, "*");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		new HttpResponse(response).withETag().eTag("v1").badRequest().send("Invalid user");
+
+		assertEquals(400, response.getStatus());
+		assertNull(response.getHeader(ETAG));
+	}
+
+	@Test
+	void sendsTheSuppliedTagForEachFormat() throws IOException {
+		assertEquals("\"v1\"", this.sendSupplied("v1", SMALL).getHeader(ETAG));
+
+		this.request.addHeader(ACCEPT, "application/cbor");
+
+		assertEquals("\"v1-cbor\"", this.sendSupplied("v1", SMALL).getHeader(ETAG));
+	}
+
+	@Test
+	void doesNotChangeTheSuppliedTagWhenSendingAgain() throws IOException {
+		this.request.addHeader(ACCEPT, "application/cbor");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HttpResponse httpResponse = new HttpResponse(response).eTag("v1").ok();
+
+		httpResponse.send(SMALL);
+		httpResponse.send(SMALL);
+
+		assertEquals("\"v1-cbor\"", response.getHeader(ETAG));
+	}
+
+	@Test
+	void doesNotSerializeTheBodyOfSuppliedTagsThatMatch() throws IOException {
+		this.request.addHeader(IF_NONE_MATCH, "\"v1\"");
+		List<String> unserializable = new UnserializableList();
+
+		MockHttpServletResponse response = this.sendSupplied("v1", unserializable);
+
+		assertEquals(304, response.getStatus());
+		assertEquals("\"v1\"", response.getHeader(ETAG));
+		assertThrows(IOException.class, () -> this.sendSupplied("v2", unserializable));
+	}
+
+	@Test
+	void repeatsTheSuppliedTagOfSmallBodiesWhenNotModified() throws IOException {
+		// The body is below the minimum size, so it is not compressed.
+		this.request.addHeader(ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse full = this.sendSupplied("v1", SMALL);
+
+		assertNull(full.getHeader(CONTENT_ENCODING));
+
+		this.request.addHeader(IF_NONE_MATCH, full.getHeader(ETAG));
+		MockHttpServletResponse notModified = this.sendSupplied("v1", SMALL);
+
+		assertEquals(304, notModified.getStatus());
+		assertEquals(full.getHeader(ETAG), notModified.getHeader(ETAG));
+	}
+
+	@Test
+	void repeatsTheSuppliedTagOfCompressedBodiesWhenNotModified() throws IOException {
+		this.request.addHeader(ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse full = this.sendSupplied("v1", LARGE);
+
+		assertEquals("gzip", full.getHeader(CONTENT_ENCODING));
+		assertEquals("\"v1-gzip\"", full.getHeader(ETAG));
+
+		this.request.addHeader(IF_NONE_MATCH, full.getHeader(ETAG));
+		MockHttpServletResponse notModified = this.sendSupplied("v1", LARGE);
+
+		assertEquals(304, notModified.getStatus());
+		assertEquals(full.getHeader(ETAG), notModified.getHeader(ETAG));
+	}
+
+	@Test
+	void repeatsTheComputedTagOfCompressedBodiesWhenNotModified() throws IOException {
+		this.request.addHeader(ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse full = this.sendComputed(LARGE);
+		MockHttpServletResponse small = this.sendComputed(SMALL);
+
+		assertEquals("gzip", full.getHeader(CONTENT_ENCODING));
+		assertTrue(full.getHeader(ETAG).endsWith("-gzip\""));
+		assertFalse(small.getHeader(ETAG).endsWith("-gzip\""));
+
+		this.request.addHeader(IF_NONE_MATCH, full.getHeader(ETAG));
+		MockHttpServletResponse notModified = this.sendComputed(LARGE);
+
+		assertEquals(304, notModified.getStatus());
+		assertEquals(full.getHeader(ETAG), notModified.getHeader(ETAG));
+	}
+
+	@Test
+	void tagsPreEncodedBodies() throws IOException {
+		PreEncodedBody body = PreEncodedBody.of(SMALL);
+		MockHttpServletResponse full = new MockHttpServletResponse();
+		new HttpResponse(full).withETag().ok().send(body);
+
+		this.request.addHeader(IF_NONE_MATCH, full.getHeader(ETAG));
+		MockHttpServletResponse notModified = new MockHttpServletResponse();
+		new HttpResponse(notModified).withETag().ok().send(body);
+
+		assertEquals(200, full.getStatus());
+		assertEquals(304, notModified.getStatus());
+		assertEquals(full.getHeader(ETAG), notModified.getHeader(ETAG));
+	}
+
+	@Test
+	void rejectsInvalidTags() {
+		HttpResponse response = new HttpResponse(new MockHttpServletResponse());
+
+		assertThrows(IllegalArgumentException.class, () -> response.eTag(""));
+		assertThrows(IllegalArgumentException.class, () -> response.eTag("a\"b"));
+		assertThrows(IllegalArgumentException.class, () -> response.eTag("a b"));
+	}
+
+	/**
+	 * List that fails when it is serialized.
+	 */
+	private static final class UnserializableList extends AbstractList<String> {
+		@Override
+		public String get(int index) {
+			throw new IllegalStateException("The body must not be serialized");
+		}
+
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+
+	private MockHttpServletResponse sendComputed(Object content) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new HttpResponse(response).withETag().ok().send(content);
+		return response;
+	}
+
+	private MockHttpServletResponse sendSupplied(String version, Object content) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new HttpResponse(response).eTag(version).ok().send(content);
+		return response;
+	}
+}
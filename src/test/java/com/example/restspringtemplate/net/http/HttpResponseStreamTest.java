@@ -0,0 +1,147 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.config.properties.HttpResponseProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.restspringtemplate.utils.Constants.CBOR_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.OBJECT_MAPPER;
+import static com.example.restspringtemplate.utils.Constants.SMILE_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+
+class HttpResponseStreamTest {
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	void setUp() {
+		this.request = new MockHttpServletRequest("GET", "/api/v1/users");
+		this.response = new MockHttpServletResponse();
+		new ResponseCompression(new HttpResponseProperties(), new SimpleMeterRegistry()).setServletContext(this.request.getServletContext());
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void streamsCompleteArrays() throws IOException {
+		new HttpResponse(this.response).ok().stream(Stream.of(1, 2, 3), StreamFormat.JSON_ARRAY);
+
+		assertEquals("[1,2,3]", this.response.getContentAsString());
+	}
+
+	@Test
+	void streamsNdjson() throws IOException {
+		new HttpResponse(this.response).ok().stream(Stream.of("a", "b"), StreamFormat.NDJSON);
+
+		assertEquals("\"a\"\n\"b\"\n", this.response.getContentAsString());
+	}
+
+	@Test
+	void streamsArraysInTheAcceptedFormat() throws IOException {
+		List<Map<String, Object>> users = List.of(Map.of("id", 1, "name", "ana"), Map.of("id", 2, "name", "bob"));
+		JsonNode expected = OBJECT_MAPPER.valueToTree(users);
+
+		this.request.addHeader(ACCEPT, "application/cbor");
+		new HttpResponse(this.response).ok().stream(users.stream(), StreamFormat.JSON_ARRAY);
+
+		assertEquals("application/cbor", this.response.getContentType());
+		assertEquals(expected, CBOR_MAPPER.readTree(this.response.getContentAsByteArray()));
+		assertTrue(this.response.getHeader(VARY).contains(ACCEPT));
+
+		this.request.removeHeader(ACCEPT);
+		this.request.addHeader(ACCEPT, "application/x-jackson-smile");
+		this.response = new MockHttpServletResponse();
+		new HttpResponse(this.response).ok().stream(users.stream(), StreamFormat.JSON_ARRAY);
+
+		assertEquals("application/x-jackson-smile", this.response.getContentType());
+		assertEquals(expected, SMILE_MAPPER.readTree(this.response.getContentAsByteArray()));
+	}
+
+	@Test
+	void streamsNdjsonWhateverTheAcceptedFormat() throws IOException {
+		this.request.addHeader(ACCEPT, "application/cbor");
+
+		new HttpResponse(this.response).ok().stream(Stream.of("a", "b"), StreamFormat.NDJSON);
+
+		assertEquals("application/x-ndjson", this.response.getContentType());
+		assertEquals("\"a\"\n\"b\"\n", this.response.getContentAsString());
+	}
+
+	@Test
+	void doesNotCloseTheArrayOfFailedStreams() throws IOException {
+		assertThrows(IllegalStateException.class, () -> new HttpResponse(this.response).ok().stream(failing(), StreamFormat.JSON_ARRAY));
+
+		assertEquals("[1,2", this.response.getContentAsString());
+	}
+
+	@Test
+	void doesNotFinishTheCompressionOfFailedStreams() throws IOException {
+		this.request.addHeader(ACCEPT_ENCODING, "gzip");
+
+		assertThrows(IllegalStateException.class, () -> new HttpResponse(this.response).ok().stream(failing(), StreamFormat.JSON_ARRAY));
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(this.response.getContentAsByteArray()))) {
+			assertThrows(EOFException.class, in::readAllBytes);
+		}
+	}
+
+	@Test
+	void finishesTheCompressionOfCompleteStreams() throws IOException {
+		this.request.addHeader(ACCEPT_ENCODING, "gzip");
+
+		new HttpResponse(this.response).ok().stream(List.of(1, 2, 3).iterator(), StreamFormat.JSON_ARRAY);
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(this.response.getContentAsByteArray()))) {
+			assertEquals("[1,2,3]", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * @return an iterator that fails after two elements.
+	 */
+	private static Iterator<Integer> failing() {
+		return new Iterator<>() {
+			private int next = 1;
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Integer next() {
+				if (this.next > 2) {
+					throw new IllegalStateException("The database connection was lost");
+				}
+
+				return this.next++;
+			}
+		};
+	}
+}
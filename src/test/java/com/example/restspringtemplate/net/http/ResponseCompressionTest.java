@@ -0,0 +1,226 @@
+package com.example.restspringtemplate.net.http;
+
+import com.example.restspringtemplate.config.properties.HttpResponseProperties;
+import com.example.restspringtemplate.net.http.ResponseCompression.CompressedOutputStream;
+import com.example.restspringtemplate.net.http.ResponseCompression.Encoding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+
+class ResponseCompressionTest {
+	private final HttpResponseProperties properties = new HttpResponseProperties();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	void setUp() {
+		this.properties.getCompression().setMinSize(DataSize.ofBytes(1024));
+		this.properties.getCompression().setExcludedPaths(List.of("/api/v1/files/**"));
+
+		this.request = new MockHttpServletRequest("GET", "/api/v1/users");
+		this.request.setServletPath("/api/v1/users");
+		this.request.addHeader(ACCEPT_ENCODING, "gzip, deflate");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void writesGzipWithAValidHeaderAndTrailer() throws IOException {
+		byte[] content = content(100_000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// In several writes, so that the checksum covers all of them.
+		try (CompressedOutputStream compressed = this.compression().open(out, Encoding.GZIP)) {
+			compressed.write(content, 0, 1000);
+			compressed.write(content, 1000, content.length - 1000);
+		}
+
+		// GZIPInputStream checks the header, the CRC-32 and the size of the trailer.
+		assertArrayEquals(content, decode(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+	}
+
+	@Test
+	void writesEmptyGzipBodies() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		this.compression().open(out, Encoding.GZIP).finish();
+
+		assertArrayEquals(new byte[0], decode(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+	}
+
+	@Test
+	void writesDeflate() throws IOException {
+		byte[] content = content(100_000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (CompressedOutputStream compressed = this.compression().open(out, Encoding.DEFLATE)) {
+			compressed.write(content, 0, content.length);
+		}
+
+		assertArrayEquals(content, decode(new InflaterInputStream(new ByteArrayInputStream(out.toByteArray()))));
+	}
+
+	@Test
+	void reusesTheDeflatersOfFinishedStreams() throws IOException {
+		ResponseCompression compression = this.compression();
+
+		for (int i = 0; i < 3; i++) {
+			byte[] content = content(10_000 + i);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+			try (CompressedOutputStream compressed = compression.open(out, Encoding.GZIP)) {
+				compressed.write(content, 0, content.length);
+			}
+
+			assertArrayEquals(content, decode(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))));
+		}
+	}
+
+	@Test
+	void recordsTheSizesInTheRegistry() throws IOException {
+		byte[] content = content(100_000);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (CompressedOutputStream compressed = this.compression().open(out, Encoding.GZIP)) {
+			compressed.write(content, 0, content.length);
+		}
+
+		assertEquals(content.length, this.registry.get("http.response.compression.original").counter().count());
+		assertEquals(out.size(), this.registry.get("http.response.compression.compressed").counter().count());
+		assertEquals(content.length - out.size(), this.registry.get("http.response.compression.saved").counter().count());
+	}
+
+	@Test
+	void doesNotCompressBodiesBelowTheMinimumSize() {
+		ResponseCompression compression = this.compression();
+
+		assertNull(compression.negotiate(this.request, 1023));
+		assertEquals(Encoding.GZIP, compression.negotiate(this.request, 1024));
+		assertEquals(Encoding.GZIP, compression.negotiate(this.request, -1));
+	}
+
+	@Test
+	void doesNotCompressTheExcludedPaths() {
+		ResponseCompression compression = this.compression();
+		this.request.setServletPath("/api/v1/files/report");
+
+		assertFalse(compression.isApplicable(this.request));
+		assertNull(compression.negotiate(this.request, 100_000));
+	}
+
+	@Test
+	void doesNotCompressWhenDisabled() {
+		this.properties.getCompression().setEnabled(false);
+		ResponseCompression compression = this.compression();
+
+		assertFalse(compression.isApplicable(this.request));
+		assertNull(compression.negotiate(this.request, 100_000));
+	}
+
+	@Test
+	void isFoundInTheServletContext() {
+		assertFalse(ResponseCompression.of(this.request).isApplicable(this.request));
+		assertFalse(ResponseCompression.of(null).isApplicable(null));
+
+		ResponseCompression compression = this.compression();
+		compression.setServletContext(this.request.getServletContext());
+
+		assertSame(compression, ResponseCompression.of(this.request));
+	}
+
+	@Test
+	void sendsSmallAndExcludedResponsesUncompressed() throws IOException {
+		this.compression().setServletContext(this.request.getServletContext());
+		String small = "a".repeat(100);
+		String large = "b".repeat(10_000);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new HttpResponse(response).ok().send(small);
+
+		assertNull(response.getHeader(CONTENT_ENCODING));
+		assertEquals('"' + small + '"', response.getContentAsString());
+		assertEquals(small.length() + 2, response.getContentLength());
+
+		response = new MockHttpServletResponse();
+		new HttpResponse(response).ok().send(large);
+
+		assertEquals("gzip", response.getHeader(CONTENT_ENCODING));
+		assertEquals('"' + large + '"', new String(decode(gunzip(response)), StandardCharsets.UTF_8));
+
+		this.request.setServletPath("/api/v1/files/report");
+		response = new MockHttpServletResponse();
+		new HttpResponse(response).ok().send(large);
+
+		assertNull(response.getHeader(CONTENT_ENCODING));
+		assertEquals('"' + large + '"', response.getContentAsString());
+	}
+
+	@Test
+	void choosesTheEncodingPreferredByTheClient() {
+		assertEquals(Encoding.GZIP, Encoding.fromAcceptEncoding("gzip, deflate"));
+		assertEquals(Encoding.GZIP, Encoding.fromAcceptEncoding("deflate, gzip"));
+		assertEquals(Encoding.DEFLATE, Encoding.fromAcceptEncoding("gzip;q=0.5, deflate"));
+		assertEquals(Encoding.GZIP, Encoding.fromAcceptEncoding("*"));
+		assertEquals(Encoding.DEFLATE, Encoding.fromAcceptEncoding("gzip;q=0, *"));
+		assertNull(Encoding.fromAcceptEncoding("gzip;q=0"));
+		assertNull(Encoding.fromAcceptEncoding("identity"));
+		assertNull(Encoding.fromAcceptEncoding(null));
+	}
+
+	private ResponseCompression compression() {
+		return new ResponseCompression(this.properties, this.registry);
+	}
+
+	/**
+	 * @return text that compresses well, but not trivially.
+	 */
+	private static byte[] content(int length) {
+		StringBuilder builder = new StringBuilder(length);
+
+		for (int i = 0; builder.length() < length; i++) {
+			builder.append("{\"id\":").append(i).append(",\"name\":\"user").append(i % 97).append("\"},");
+		}
+
+		builder.setLength(length);
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static InputStream gunzip(MockHttpServletResponse response) throws IOException {
+		return new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()));
+	}
+
+	private static byte[] decode(InputStream in) throws IOException {
+		try (in) {
+			byte[] decoded = in.readAllBytes();
+			assertEquals(-1, in.read());
+			return decoded;
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package com.example.restspringtemplate.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles fixture controllers through the {@link RouteTableProcessor}, and
+ * checks the generated route table or the reported errors.
+ */
+class RouteTableProcessorTest {
+	private static final String IMPORTS = """
+		package fixtures;
+
+		import com.example.restspringtemplate.domain.model.Role;
+		import com.example.restspringtemplate.router.PublicRoute;
+		import com.example.restspringtemplate.router.Tier;
+		import org.springframework.web.bind.annotation.*;
+		import java.lang.annotation.*;
+		""";
+
+	@TempDir
+	Path output;
+
+	@Test
+	void collectsTheRoutesOfDeclaredHandlerMethods() throws IOException {
+		Result result = this.compile(Map.of("ItemController", """
+			@RestController
+			@RequestMapping("/api")
+			public class ItemController {
+				@Tier(Role.LOW)
+				@GetMapping("/items/{id}")
+				public void get() {
+				}
+
+				@Tier(Role.TOP)
+				@RequestMapping(path = "/items", method = {RequestMethod.POST, RequestMethod.PUT})
+				public void save() {
+				}
+
+				@PublicRoute
+				@GetMapping("/items/public")
+				public void open() {
+				}
+			}
+			"""));
+
+		assertEquals(List.of(), result.errors());
+		assertEquals(List.of(
+			route("GET", "LOW", "/api/items/{id}"),
+			route("POST", "TOP", "/api/items"),
+			route("PUT", "TOP", "/api/items")
+		), result.routes());
+	}
+
+	@Test
+	void collectsTheRoutesInheritedFromSuperclassesAndInterfaces() throws IOException {
+		Result result = this.compile(Map.of(
+			"BaseController", """
+				@RequestMapping("/api")
+				public abstract class BaseController {
+					@Tier(Role.LOW)
+					@GetMapping("/items/{id}")
+					public void get() {
+					}
+
+					@Tier(Role.MEDIUM)
+					@GetMapping("/items")
+					public void list() {
+					}
+				}
+				""",
+			"Deletable", """
+				public interface Deletable {
+					@Tier(Role.MEDIUM)
+					@DeleteMapping("/items/{id}")
+					void delete();
+				}
+				""",
+			"ItemController", """
+				@RestController
+				public class ItemController extends BaseController implements Deletable {
+					@Override
+					public void list() {
+					}
+
+					@Override
+					public void delete() {
+					}
+				}
+				"""
+		));
+
+		assertEquals(List.of(), result.errors());
+		assertEquals(List.of(
+			route("DELETE", "MEDIUM", "/api/items/{id}"),
+			route("GET", "LOW", "/api/items/{id}"),
+			route("GET", "MEDIUM", "/api/items")
+		), result.routes());
+	}
+
+	@Test
+	void collectsTheRoutesOfMetaAnnotatedControllers() throws IOException {
+		Result result = this.compile(Map.of(
+			"ApiController", """
+				@Target(ElementType.TYPE)
+				@Retention(RetentionPolicy.RUNTIME)
+				@RestController
+				public @interface ApiController {
+				}
+				""",
+			"MetaController", """
+				@ApiController
+				public class MetaController {
+					@Tier(Role.LOW)
+					@GetMapping("/meta")
+					public void get() {
+					}
+				}
+				"""
+		));
+
+		assertEquals(List.of(), result.errors());
+		assertEquals(List.of(route("GET", "LOW", "/meta")), result.routes());
+	}
+
+	@Test
+	void rejectsInheritedHandlerMethodsWithoutTier() throws IOException {
+		Result result = this.compile(Map.of(
+			"BaseController", """
+				public abstract class BaseController {
+					@GetMapping("/items")
+					public void list() {
+					}
+				}
+				""",
+			"ItemController", """
+				@RestController
+				public class ItemController extends BaseController {
+				}
+				"""
+		));
+
+		assertEquals(1, result.errors().size());
+		assertTrue(result.errors().get(0).startsWith("Handler method without @Tier nor @PublicRoute"), result.errors().get(0));
+	}
+
+	@Test
+	void rejectsComposedMappingAnnotations() throws IOException {
+		Result result = this.compile(Map.of(
+			"GetJson", """
+				@Target(ElementType.METHOD)
+				@Retention(RetentionPolicy.RUNTIME)
+				@RequestMapping(method = RequestMethod.GET, produces = "application/json")
+				public @interface GetJson {
+					String[] value() default {};
+				}
+				""",
+			"JsonController", """
+				@RestController
+				public class JsonController {
+					@Tier(Role.LOW)
+					@GetJson("/json")
+					public void get() {
+					}
+				}
+				"""
+		));
+
+		assertTrue(result.errors().contains("Composed mapping annotations are not supported by the route table: @fixtures.GetJson"), result.errors().toString());
+	}
+
+	@Test
+	void rejectsDuplicatedRoutesAndTiersOutsideControllers() throws IOException {
+		Result result = this.compile(Map.of(
+			"ItemController", """
+				@RestController
+				public class ItemController {
+					@Tier(Role.LOW)
+					@GetMapping("/items")
+					public void list() {
+					}
+
+					@Tier(Role.TOP)
+					@GetMapping("/items")
+					public void listAgain() {
+					}
+				}
+				""",
+			"Helper", """
+				public class Helper {
+					@Tier(Role.LOW)
+					public void help() {
+					}
+				}
+				"""
+		));
+
+		assertEquals(2, result.errors().size(), result.errors().toString());
+		assertTrue(result.errors().get(0).startsWith("Route GET /items is already declared by"), result.errors().get(0));
+		assertEquals("@Tier can only be used on the handler methods of a controller", result.errors().get(1));
+	}
+
+	/**
+	 * Runs the processor over the given classes of the {@code fixtures} package.
+	 *
+	 * @param classes the source of each class (without package nor imports), by name.
+	 *
+	 * @return the errors and the routes of the generated table.
+	 */
+	private Result compile(Map<String, String> classes) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<JavaFileObject> sources = new ArrayList<>();
+
+		classes.forEach((name, source) -> sources.add(new Source(name, IMPORTS + source)));
+
+		try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+			files.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(this.output));
+			files.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(this.output));
+
+			// Surefire runs the tests from a manifest-only jar, whose classpath it also publishes.
+			String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+			JavaCompiler.CompilationTask task = compiler.getTask(
+				null, files, diagnostics, List.of("-proc:only", "-classpath", classpath), null, sources
+			);
+			task.setProcessors(List.of(new RouteTableProcessor()));
+			task.call();
+		}
+
+		List<String> errors = diagnostics.getDiagnostics()
+		                                 .stream()
+		                                 .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+		                                 .map(diagnostic -> diagnostic.getMessage(null))
+		                                 .toList();
+
+		Path table = this.output.resolve("com/example/restspringtemplate/router/RouteTable.java");
+		List<String> routes = Files.readAllLines(table)
+		                           .stream()
+		                           .map(String::trim)
+		                           .filter(line -> line.startsWith("new Route("))
+		                           .map(line -> line.endsWith(",") ? line.substring(0, line.length() - 1) : line)
+		                           .sorted()
+		                           .toList();
+
+		return new Result(errors, routes);
+	}
+
+	private static String route(String method, String tier, String path) {
+		return "new Route(\"" + method + "\", Constants." + tier + "_TIER_ROLES, \"" + path + "\")";
+	}
+
+	private record Result(List<String> errors, List<String> routes) {
+	}
+
+	private static final class Source extends SimpleJavaFileObject {
+		private final String code;
+
+		private Source(String name, String code) {
+			super(URI.create("string:///fixtures/" + name + Kind.SOURCE.extension), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return this.code;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.restspringtemplate.router;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathSetTest {
+	private final PathSet paths = PathSet.compile(List.of("/", "/api/v1/test", "/actuator/health/**"));
+
+	@Test
+	void matchesExactPaths() {
+		assertTrue(this.paths.matches("/"));
+		assertTrue(this.paths.matches("/api/v1/test"));
+
+		assertFalse(this.paths.matches("/api/v1/test/more"));
+		assertFalse(this.paths.matches("/api/v1"));
+		assertFalse(this.paths.matches(""));
+	}
+
+	@Test
+	void matchesPrefixesAndEverythingBelowThem() {
+		assertTrue(this.paths.matches("/actuator/health"));
+		assertTrue(this.paths.matches("/actuator/health/"));
+		assertTrue(this.paths.matches("/actuator/health/liveness"));
+		assertTrue(this.paths.matches("/actuator/health/a/b/c"));
+	}
+
+	@Test
+	void onlyMatchesWholeSegmentsOfPrefixes() {
+		assertFalse(this.paths.matches("/actuator"));
+		assertFalse(this.paths.matches("/actuator/healthz"));
+		assertFalse(this.paths.matches("/actuator/metrics"));
+	}
+
+	@Test
+	void ignoresRepeatedSlashesInPrefixes() {
+		assertTrue(this.paths.matches("//actuator//health"));
+	}
+
+	@Test
+	void matchesEverythingWithTheRootPrefix() {
+		PathSet all = PathSet.compile(List.of("/**"));
+
+		assertTrue(all.matches("/"));
+		assertTrue(all.matches("/any/path"));
+	}
+
+	@Test
+	void matchesNothingWhenEmpty() {
+		PathSet none = PathSet.compile(List.of());
+
+		assertFalse(none.matches("/"));
+		assertFalse(none.matches("/api"));
+	}
+
+	@Test
+	void rejectsOtherWildcards() {
+		assertThrows(IllegalArgumentException.class, () -> PathSet.compile(List.of("/api/*")));
+		assertThrows(IllegalArgumentException.class, () -> PathSet.compile(List.of("/api/**/test")));
+		assertThrows(IllegalArgumentException.class, () -> PathSet.compile(List.of("/api/*/**")));
+	}
+}